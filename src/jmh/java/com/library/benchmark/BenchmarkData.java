@@ -0,0 +1,83 @@
+package com.library.benchmark;
+
+import com.library.dto.BookDTO;
+import com.library.dto.IdSet;
+import com.library.entity.Author;
+import com.library.entity.Book;
+import com.library.entity.Publisher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic in-memory fixtures, so results stay comparable across commits.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static Publisher publisher(int id) {
+        Publisher publisher = new Publisher("Publisher " + id);
+        publisher.setId(id);
+        return publisher;
+    }
+
+    static Author author(int id) {
+        Author author = new Author("Name " + id, "Surname " + id, "Country " + id % 50);
+        author.setId(id);
+        return author;
+    }
+
+    static Book book(int id, Publisher publisher) {
+        Book book = new Book("Book " + id, LocalDate.of(2001, 1, 1 + id % 28), "Genre " + id % 20, publisher);
+        book.setId(id);
+        return book;
+    }
+
+    static Set<Book> books(int count) {
+        Publisher publisher = publisher(1);
+        Set<Book> books = new LinkedHashSet<>();
+        for (int id = 1; id <= count; id++) {
+            books.add(book(id, publisher));
+        }
+        return books;
+    }
+
+    static Set<Author> authors(int count) {
+        Set<Author> authors = new LinkedHashSet<>();
+        for (int id = 1; id <= count; id++) {
+            authors.add(author(id));
+        }
+        return authors;
+    }
+
+    static IdSet ids(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+        }
+        return IdSet.of(ids);
+    }
+
+    static List<BookDTO> bookDTOs(int count, int authorsPerBook) {
+        List<BookDTO> books = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            BookDTO book = new BookDTO();
+            book.setId(id);
+            book.setTitle("Book " + id);
+            book.setPublishedDate(LocalDate.of(2001, 1, 1 + id % 28));
+            book.setGenre("Genre " + id % 20);
+            book.setPublisherId(1 + id % 100);
+            int[] authorIds = new int[authorsPerBook];
+            for (int k = 0; k < authorsPerBook; k++) {
+                authorIds[k] = 1 + (id * 31 + k) % 10_000;
+            }
+            book.setAuthorIds(IdSet.of(authorIds));
+            books.add(book);
+        }
+        return books;
+    }
+}
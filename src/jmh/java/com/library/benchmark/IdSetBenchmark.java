@@ -0,0 +1,88 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.library.config.WebConfig;
+import com.library.dto.IdSet;
+import com.library.entity.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A publisher's book ids mapped from its books and written to and read from JSON, as
+ * {@link IdSet} and as the boxed {@code HashSet<Integer>} it replaces. Meant to be run with
+ * the allocation profiler, {@code -Djmh.args="-prof gc"}, comparing {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdSetBenchmark {
+
+    @Param({"100", "100000"})
+    private int size;
+
+    private Set<Book> books;
+    private IdSet ids;
+    private Set<Integer> boxedIds;
+    private ObjectWriter idSetWriter;
+    private ObjectWriter boxedWriter;
+    private ObjectReader idSetReader;
+    private ObjectReader boxedReader;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        books = BenchmarkData.books(size);
+        ids = IdSet.of(books, Book::getId);
+        boxedIds = Set.copyOf(ids);
+
+        var objectMapper = new WebConfig(new StandardEnvironment()).objectMapper();
+        TypeReference<Set<Integer>> boxed = new TypeReference<>() {};
+        idSetWriter = objectMapper.writerFor(IdSet.class);
+        idSetReader = objectMapper.readerFor(IdSet.class);
+        boxedWriter = objectMapper.writerFor(boxed);
+        boxedReader = objectMapper.readerFor(boxed);
+        json = idSetWriter.writeValueAsBytes(ids);
+    }
+
+    @Benchmark
+    public IdSet mapIdSet() {
+        return IdSet.of(books, Book::getId);
+    }
+
+    @Benchmark
+    public Set<Integer> mapBoxed() {
+        return books.stream()
+                .map(Book::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public byte[] writeIdSet() throws IOException {
+        return idSetWriter.writeValueAsBytes(ids);
+    }
+
+    @Benchmark
+    public byte[] writeBoxed() throws IOException {
+        return boxedWriter.writeValueAsBytes(boxedIds);
+    }
+
+    @Benchmark
+    public IdSet readIdSet() throws IOException {
+        return idSetReader.readValue(json);
+    }
+
+    @Benchmark
+    public Set<Integer> readBoxed() throws IOException {
+        return boxedReader.readValue(json);
+    }
+}
@@ -0,0 +1,70 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.config.WebConfig;
+import com.library.dto.BookDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of book lists with the {@code ObjectMapper} the web layer is configured with
+ * ({@code tuned}: Blackbird, shared buffer pool), against a plain mapper with the same
+ * date and filter settings and reflective property access ({@code plain}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    private int size;
+
+    @Param({"3"})
+    private int authorsPerBook;
+
+    @Param({"plain", "tuned"})
+    private String mapper;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<BookDTO> books;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        TypeReference<List<BookDTO>> type = new TypeReference<>() {};
+        ObjectMapper objectMapper = mapper.equals("tuned")
+                ? new WebConfig(new StandardEnvironment()).objectMapper()
+                : new ObjectMapper()
+                        .registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        books = BenchmarkData.bookDTOs(size, authorsPerBook);
+        json = writer.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeBooks() throws IOException {
+        return writer.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public List<BookDTO> deserializeBooks() throws IOException {
+        return reader.readValue(json);
+    }
+}
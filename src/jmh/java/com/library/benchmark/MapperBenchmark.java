@@ -0,0 +1,68 @@
+package com.library.benchmark;
+
+import com.library.dto.BookDTO;
+import com.library.entity.Book;
+import com.library.mapper.AuthorMapper;
+import com.library.mapper.AuthorMapperImpl;
+import com.library.mapper.BookMapper;
+import com.library.mapper.BookMapperImpl;
+import com.library.mapper.PublisherMapper;
+import com.library.mapper.PublisherMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping where the cost is dominated by the id collections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+    private final AuthorMapper authorMapper = new AuthorMapperImpl();
+    private final PublisherMapper publisherMapper = new PublisherMapperImpl();
+
+    private Book book;
+    private BookDTO bookDTO;
+    private Set<Book> books;
+
+    @Setup
+    public void setUp() {
+        book = BenchmarkData.book(1, BenchmarkData.publisher(1));
+        book.setAuthors(BenchmarkData.authors(size));
+
+        bookDTO = bookMapper.toDTO(book);
+        bookDTO.setAuthorIds(BenchmarkData.ids(size));
+
+        books = BenchmarkData.books(size);
+    }
+
+    @Benchmark
+    public BookDTO bookToDTO() {
+        return bookMapper.toDTO(book);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return bookMapper.toEntity(bookDTO);
+    }
+
+    @Benchmark
+    public Set<Integer> authorBooksToIds() {
+        return authorMapper.booksToIds(books);
+    }
+
+    @Benchmark
+    public Set<Integer> publisherBooksToIds() {
+        return publisherMapper.mapBooksToBookIds(books);
+    }
+}
@@ -0,0 +1,182 @@
+package com.library.benchmark;
+
+import com.library.config.PersistenceConfig;
+import com.library.dto.AuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.FieldSelection;
+import com.library.entity.Author;
+import com.library.entity.Book;
+import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Repository reads against a throwaway PostgreSQL seeded with {@code publishers}, {@code authors}
+ * and {@code books} rows; volumes are JMH params, e.g. {@code -p books=500000}. Each call runs in
+ * its own read-only transaction, as it would behind a service.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100"})
+    private int publishers;
+
+    @Param({"5000"})
+    private int authors;
+
+    @Param({"20000"})
+    private int books;
+
+    @Param({"3"})
+    private int authorsPerBook;
+
+    @Param({"500"})
+    private int batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate readOnly;
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private List<Integer> bookBatch;
+    private List<Integer> authorBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("filesystem:src/main/resources/db/migration")
+                .load()
+                .migrate();
+
+        // System properties take precedence over application.properties in the Spring environment.
+        System.setProperty("db.url", postgres.getJdbcUrl());
+        System.setProperty("db.user", postgres.getUsername());
+        System.setProperty("db.password", postgres.getPassword());
+        System.setProperty("db.showSql", "false");
+
+        context = new AnnotationConfigApplicationContext();
+        context.register(PersistenceConfig.class);
+        context.scan("com.library.repository");
+        context.refresh();
+
+        seed(context.getBean(DataSource.class));
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+
+        bookBatch = spreadIds(books, batchSize);
+        authorBatch = spreadIds(authors, batchSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public List<Book> bookFindAll() {
+        return readOnly.execute(status -> bookRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Author> authorFindAll() {
+        return readOnly.execute(status -> authorRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Book> bookFindPage() {
+        return readOnly.execute(status -> bookRepository.findPage(books / 2, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<BookDTO> bookFindDTOPage() {
+        return readOnly.execute(status -> bookRepository.findDTOPage(BookListCriteriaDTO.ALL, null, books / 2, PAGE_SIZE,
+                FieldSelection.BOOK));
+    }
+
+    @Benchmark
+    public List<Author> authorFindPage() {
+        return readOnly.execute(status -> authorRepository.findPage(authors / 2, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<AuthorDTO> authorFindDTOPage() {
+        return readOnly.execute(status -> authorRepository.findDTOPage(authors / 2, PAGE_SIZE, FieldSelection.AUTHOR));
+    }
+
+    @Benchmark
+    public Map<Integer, Set<Book>> findBooksForAuthors() {
+        return readOnly.execute(status -> authorRepository.findBooksForAuthors(authorBatch));
+    }
+
+    @Benchmark
+    public Map<Integer, Set<Author>> findAuthorsForBooks() {
+        return readOnly.execute(status -> bookRepository.findAuthorsForBooks(bookBatch));
+    }
+
+    private static List<Integer> spreadIds(int count, int batchSize) {
+        int step = Math.max(1, count / batchSize);
+        return IntStream.range(0, Math.min(batchSize, count)).map(i -> 1 + i * step).boxed().toList();
+    }
+
+    private void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO publishers (id, name)
+                    SELECT g, 'Publisher ' || g FROM generate_series(1, %d) g
+                    """.formatted(publishers));
+            statement.execute("""
+                    INSERT INTO authors (id, name, surname, country)
+                    SELECT g, 'Name ' || g, 'Surname ' || g, 'Country ' || g %% 50 FROM generate_series(1, %d) g
+                    """.formatted(authors));
+            statement.execute("""
+                    INSERT INTO books (id, title, published_date, genre, publisher_id)
+                    SELECT g, 'Book ' || g, DATE '2000-01-01' + g %% 9000, 'Genre ' || g %% 20, 1 + g %% %d
+                    FROM generate_series(1, %d) g
+                    """.formatted(publishers, books));
+            statement.execute("""
+                    INSERT INTO book_author (book_id, author_id)
+                    SELECT DISTINCT b, 1 + (b::bigint * 7919 + k * 104729) %% %d
+                    FROM generate_series(1, %d) b, generate_series(1, %d) k
+                    """.formatted(authors, books, authorsPerBook));
+            statement.execute("ANALYZE");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.library.benchmark;
+
+import com.library.config.PersistenceConfig;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchHitDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.SearchFacetsDTO;
+import com.library.repository.BookRepository;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-page book searches (ranked hits plus facet counts, as {@code GET /books/search} runs
+ * them) against a throwaway PostgreSQL. Sampled, so the report includes p99; the target volume
+ * is {@code -p books=5000000}. Titles are three words from a 500-word vocabulary; every tenth
+ * book also contains "history" and every ten-thousandth "zeppelin".
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final int FACET_LIMIT = 20;
+    private static final int MAX_MATCHES = 10000;
+
+    @Param({"200000"})
+    private int books;
+
+    @Param({"20000"})
+    private int authors;
+
+    @Param({"500"})
+    private int publishers;
+
+    private PostgreSQLContainer<?> postgres;
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate readOnly;
+    private BookRepository bookRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("filesystem:src/main/resources/db/migration")
+                .load()
+                .migrate();
+
+        System.setProperty("db.url", postgres.getJdbcUrl());
+        System.setProperty("db.user", postgres.getUsername());
+        System.setProperty("db.password", postgres.getPassword());
+        System.setProperty("db.showSql", "false");
+
+        context = new AnnotationConfigApplicationContext();
+        context.register(PersistenceConfig.class);
+        context.scan("com.library.repository");
+        context.refresh();
+
+        seed(context.getBean(DataSource.class));
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        bookRepository = context.getBean(BookRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public void selectiveTerm(Blackhole blackhole) {
+        search(new BookSearchCriteriaDTO("zeppelin", null, null, null, null, null), blackhole);
+    }
+
+    @Benchmark
+    public void commonTerm(Blackhole blackhole) {
+        search(new BookSearchCriteriaDTO("history", null, null, null, null, null), blackhole);
+    }
+
+    @Benchmark
+    public void commonTermFiltered(Blackhole blackhole) {
+        search(new BookSearchCriteriaDTO("history", "Genre 3", 7, null, null, null), blackhole);
+    }
+
+    @Benchmark
+    public void authorName(Blackhole blackhole) {
+        search(new BookSearchCriteriaDTO("surname42", null, null, null, null, null), blackhole);
+    }
+
+    private void search(BookSearchCriteriaDTO criteria, Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            List<BookSearchHitDTO> hits = bookRepository.search(criteria, MAX_MATCHES, null, 0, PAGE_SIZE + 1,
+                    FieldSelection.BOOK);
+            SearchFacetsDTO facets = bookRepository.findSearchFacets(criteria, MAX_MATCHES, FACET_LIMIT);
+            blackhole.consume(hits);
+            blackhole.consume(facets);
+        });
+    }
+
+    private void seed(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO publishers (id, name)
+                    SELECT g, 'Publisher ' || g FROM generate_series(1, %d) g
+                    """.formatted(publishers));
+            statement.execute("""
+                    INSERT INTO authors (id, name, surname, country)
+                    SELECT g, 'Name' || g, 'Surname' || g, 'Country ' || g %% 50 FROM generate_series(1, %d) g
+                    """.formatted(authors));
+            statement.execute("""
+                    INSERT INTO books (id, title, published_date, genre, publisher_id)
+                    SELECT g,
+                           concat_ws(' ', 'word' || (g::bigint * 7919) %% 500, 'word' || (g::bigint * 104729) %% 500,
+                                     'word' || (g::bigint * 1299709) %% 500,
+                                     CASE WHEN g %% 10 = 0 THEN 'history' END,
+                                     CASE WHEN g %% 10000 = 0 THEN 'zeppelin' END),
+                           DATE '1950-01-01' + g %% 27000, 'Genre ' || g %% 20, 1 + g %% %d
+                    FROM generate_series(1, %d) g
+                    """.formatted(publishers, books));
+            statement.execute("""
+                    INSERT INTO book_author (book_id, author_id)
+                    SELECT DISTINCT b, 1 + (b::bigint * 7919 + k * 104729) %% %d
+                    FROM generate_series(1, %d) b, generate_series(1, 2) k
+                    """.formatted(authors, books));
+            statement.execute("ANALYZE");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.benchmark;
+
+import com.library.dto.SuggestionDTO;
+import com.library.search.SuggestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggest lookups over {@code titles} labels of two to five words drawn from a vocabulary of
+ * 20,000 random words, e.g. {@code -p titles=1000000}. The setup also prints the index's own
+ * memory estimate.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestBenchmark {
+    private static final int LIMIT = 10;
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000", "1000000"})
+    private int titles;
+
+    private final SuggestIndex index = new SuggestIndex();
+    private String word;
+    private String phrase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            char[] letters = new char[4 + random.nextInt(6)];
+            for (int j = 0; j < letters.length; j++) {
+                letters[j] = (char) ('a' + random.nextInt(26));
+            }
+            vocabulary[i] = new String(letters);
+        }
+        long start = System.nanoTime();
+        index.load(consumer -> {
+            StringBuilder title = new StringBuilder();
+            for (int id = 1; id <= titles; id++) {
+                title.setLength(0);
+                for (int k = 2 + random.nextInt(4); k > 0; k--) {
+                    title.append(vocabulary[random.nextInt(VOCABULARY)]).append(' ');
+                }
+                consumer.accept(title.toString().trim(), id);
+            }
+        });
+        System.out.printf("%nLoaded %,d titles in %,d ms, %,d words, ~%,d MB%n", index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.wordCount(),
+                index.estimatedBytes() >> 20);
+
+        word = vocabulary[7].substring(0, 3);
+        phrase = vocabulary[7] + " " + vocabulary[11].substring(0, 2);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> singleLetter() {
+        return index.find("k", LIMIT);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> wordPrefix() {
+        return index.find(word, LIMIT);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> twoWords() {
+        return index.find(phrase, LIMIT);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> noMatch() {
+        return index.find("qqqqq", LIMIT);
+    }
+}
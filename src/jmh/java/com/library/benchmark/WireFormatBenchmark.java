@@ -0,0 +1,85 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.library.config.WebConfig;
+import com.library.dto.BookDTO;
+import com.library.dto.PublisherDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding cost of the response formats the API can negotiate: JSON, JSON gzipped the way
+ * Tomcat does it (default deflate level), Smile and CBOR. Payloads are a page of {@code size}
+ * books and a publisher with {@code size * 100} book ids. The setup prints the encoded size of
+ * each payload, e.g. {@code -p format=json,gzip -p size=1000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "gzip", "smile", "cbor"})
+    private String format;
+
+    @Param({"50", "1000"})
+    private int size;
+
+    private ObjectWriter booksWriter;
+    private ObjectWriter publisherWriter;
+    private List<BookDTO> books;
+    private PublisherDTO publisher;
+    private boolean gzip;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "json", "gzip" -> WebConfig.jsonMapper();
+            case "smile" -> WebConfig.smileMapper();
+            case "cbor" -> WebConfig.cborMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        gzip = format.equals("gzip");
+        booksWriter = objectMapper.writerFor(new TypeReference<List<BookDTO>>() {});
+        publisherWriter = objectMapper.writerFor(PublisherDTO.class);
+
+        books = BenchmarkData.bookDTOs(size, 3);
+        publisher = new PublisherDTO();
+        publisher.setId(1);
+        publisher.setName("Publisher 1");
+        publisher.setBookIds(BenchmarkData.ids(size * 100));
+
+        System.out.printf("%n%s: %,d books in %,d bytes, publisher with %,d book ids in %,d bytes%n", format,
+                size, bookPage().length, size * 100, publisherWithIds().length);
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws IOException {
+        return encode(booksWriter, books);
+    }
+
+    @Benchmark
+    public byte[] publisherWithIds() throws IOException {
+        return encode(publisherWriter, publisher);
+    }
+
+    private byte[] encode(ObjectWriter writer, Object value) throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(value);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.library;
+
+import com.library.config.PersistenceConfig;
+import com.library.dto.ImportFormat;
+import com.library.dto.ImportResultDTO;
+import com.library.dto.ImportSourceDTO;
+import com.library.dto.ImportTable;
+import com.library.service.CatalogImportService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code import <dir>}: loads {@code publishers}, {@code authors}, {@code books} and
+ * {@code book_author} from {@code <table>.csv} or {@code <table>.ndjson} files in a directory,
+ * without starting the web layer. Missing files are skipped.
+ */
+final class ImportCommand {
+
+    private ImportCommand() {}
+
+    static int run(String[] args) {
+        if (args.length != 1 || !Files.isDirectory(Path.of(args[0]))) {
+            System.err.println("Usage: import <directory with publishers|authors|books|book_author .csv or .ndjson files>");
+            return 2;
+        }
+
+        Path directory = Path.of(args[0]);
+        List<InputStream> streams = new ArrayList<>();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            List<ImportSourceDTO> sources = new ArrayList<>();
+            for (ImportTable table : ImportTable.values()) {
+                for (ImportFormat format : ImportFormat.values()) {
+                    Path file = directory.resolve(table.tableName() + "." + format.extension());
+                    if (Files.isRegularFile(file)) {
+                        InputStream data = new BufferedInputStream(Files.newInputStream(file));
+                        streams.add(data);
+                        sources.add(new ImportSourceDTO(table, format, data));
+                    }
+                }
+            }
+            if (sources.isEmpty()) {
+                System.err.println("No import files found in " + directory);
+                return 2;
+            }
+
+            // Nothing queries the suggest indexes here, so they are neither loaded nor reloaded
+            context.getEnvironment().getPropertySources()
+                    .addFirst(new MapPropertySource("import", Map.of("suggest.enabled", "false")));
+            context.register(PersistenceConfig.class);
+            context.scan("com.library.cache", "com.library.mapper", "com.library.repository", "com.library.search",
+                    "com.library.service");
+            context.refresh();
+
+            ImportResultDTO result = context.getBean(CatalogImportService.class).importCatalog(sources);
+            result.tables().forEach(table -> System.out.printf("%-12s staged %,d merged %,d%n",
+                    table.table(), table.staged(), table.merged()));
+            System.out.printf("Imported in %,d ms%n", result.elapsedMillis());
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            return 1;
+        } finally {
+            for (InputStream stream : streams) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,120 @@
 package com.library;
 
+import com.library.config.WebConfig;
+import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardVirtualThreadExecutor;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Starts the API on an embedded Tomcat with the dispatcher servlet mapped to {@code /api/*},
+ * or runs {@code import <dir>} (see {@link ImportCommand}).
+ * <p>
+ * With {@code server.virtualThreads=true} every request runs on its own virtual thread, so
+ * requests blocked on JDBC no longer hold a platform thread; concurrency against the database
+ * stays bounded by the Hikari pool. Otherwise a platform pool of {@code server.maxThreads}
+ * is used. Text responses are gzip-compressed for clients that accept it. Tomcat's working
+ * files go to {@code server.baseDir}, relative to the working directory. Settings come from
+ * {@code application.properties} and can be overridden with system properties.
+ */
 public class LibraryApplication {
+    private static final String DISPATCHER = "dispatcher";
+
     public static void main(String[] args) throws LifecycleException {
+        if (args.length > 0 && "import".equals(args[0])) {
+            System.exit(ImportCommand.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        Properties settings = loadSettings();
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(createBaseDir(setting(settings, "server.baseDir", "tomcat")));
+        tomcat.setConnector(createConnector(tomcat, settings));
+
+        AnnotationConfigWebApplicationContext applicationContext = new AnnotationConfigWebApplicationContext();
+        applicationContext.register(WebConfig.class);
+
+        Context context = tomcat.addContext("", null);
+        Wrapper dispatcher = Tomcat.addServlet(context, DISPATCHER, new DispatcherServlet(applicationContext));
+        dispatcher.setLoadOnStartup(1);
+        dispatcher.setAsyncSupported(true);
+        context.addServletMappingDecoded("/api/*", DISPATCHER);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                tomcat.stop();
+                tomcat.destroy();
+            } catch (LifecycleException ignored) {
+            }
+            applicationContext.close();
+        }, "library-shutdown"));
+
+        tomcat.start();
+        tomcat.getServer().await();
+    }
+
+    private static Connector createConnector(Tomcat tomcat, Properties settings) {
+        Connector connector = new Connector();
+        connector.setPort(Integer.parseInt(setting(settings, "server.port", "8080")));
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+        protocol.setMaxConnections(Integer.parseInt(setting(settings, "server.maxConnections", "8192")));
+        protocol.setAcceptCount(Integer.parseInt(setting(settings, "server.acceptCount", "100")));
+
+        // gzip for clients that accept it; a response whose length is known up front is only
+        // compressed from server.compressionMinSize bytes on
+        AbstractHttp11Protocol<?> http = (AbstractHttp11Protocol<?>) protocol;
+        http.setCompression(setting(settings, "server.compression", "on"));
+        http.setCompressionMinSize(Integer.parseInt(setting(settings, "server.compressionMinSize", "2048")));
+        http.setCompressibleMimeType(setting(settings, "server.compressibleMimeTypes",
+                "application/json,application/x-ndjson,text/plain"));
+
+        if (Boolean.parseBoolean(setting(settings, "server.virtualThreads", "true"))) {
+            StandardVirtualThreadExecutor executor = new StandardVirtualThreadExecutor();
+            executor.setName("libraryVirtualThreads");
+            executor.setNamePrefix("http-vt-");
+            tomcat.getService().addExecutor(executor);
+            protocol.setExecutor(executor);
+        } else {
+            protocol.setMaxThreads(Integer.parseInt(setting(settings, "server.maxThreads", "200")));
+        }
+        return connector;
+    }
+
+    private static Properties loadSettings() {
+        Properties settings = new Properties();
+        try (InputStream in = LibraryApplication.class.getResourceAsStream("/application.properties")) {
+            if (in != null) {
+                settings.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return settings;
+    }
+
+    private static String setting(Properties settings, String key, String defaultValue) {
+        return System.getProperty(key, settings.getProperty(key, defaultValue));
+    }
 
+    /** A fixed directory, reused by every start, rather than a temporary one left behind by each. */
+    private static String createBaseDir(String baseDir) {
+        try {
+            return Files.createDirectories(Path.of(baseDir)).toAbsolutePath().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.library.advisor;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Records the distinct SELECT statements Hibernate prepares, JPQL translations and native
+ * queries alike, for the index advisor to explain; the repositories pass the reads they run over
+ * the raw connection through it as well. IN lists are collapsed to a single {@code ?}, so lists
+ * of every batch size count as one statement, while other placeholder lists such as row values
+ * are kept. Once {@code maxStatements} are held, new ones are ignored. A capture of size zero
+ * records nothing.
+ */
+public class StatementCapture implements StatementInspector {
+    private static final Pattern IN_LIST = Pattern.compile("(?i)(\\bin\\s*\\()\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private final int maxStatements;
+    private final Set<String> statements = ConcurrentHashMap.newKeySet();
+
+    public StatementCapture(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    public boolean isEnabled() {
+        return maxStatements > 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (statements.size() < maxStatements && isSelect(sql)) {
+            statements.add(IN_LIST.matcher(sql).replaceAll("$1?)"));
+        }
+        return sql;
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    private static boolean isSelect(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        return sql.regionMatches(true, start, "select", 0, 6) || sql.regionMatches(true, start, "with", 0, 4);
+    }
+}
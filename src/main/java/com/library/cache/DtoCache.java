@@ -0,0 +1,91 @@
+package com.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of DTO snapshots keyed by entity id. Entries are bounded by size and
+ * evicted with Caffeine's W-TinyLFU policy. Cached DTOs are shared between callers and must
+ * be treated as read-only.
+ */
+public class DtoCache<V> {
+    private final Cache<Integer, V> cache;
+    private final UnaryOperator<V> snapshot;
+    private final boolean enabled;
+
+    public DtoCache(boolean enabled, long maximumSize, Duration timeToLive, UnaryOperator<V> snapshot) {
+        this.enabled = enabled;
+        this.snapshot = snapshot;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(enabled ? maximumSize : 0)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<V> get(int id, IntFunction<Optional<V>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        V cached = cache.get(id, key -> loader.apply(key).map(snapshot).orElse(null));
+        return Optional.ofNullable(cached);
+    }
+
+    /** The cached DTO, if there is one; nothing is loaded on a miss. */
+    public Optional<V> peek(int id) {
+        return enabled ? Optional.ofNullable(cache.getIfPresent(id)) : Optional.empty();
+    }
+
+    public void evict(int id) {
+        evict(List.of(id));
+    }
+
+    /**
+     * Evicts right away and once more after the surrounding transaction completes, so a read
+     * that raced with the write cannot leave the pre-commit state behind.
+     */
+    public void evict(Collection<Integer> ids) {
+        if (ids.isEmpty()) return;
+        List<Integer> keys = List.copyOf(ids);
+        cache.invalidateAll(keys);
+        afterCompletion(() -> cache.invalidateAll(keys));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCompletion(cache::invalidateAll);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public Cache<Integer, V> nativeCache() {
+        return cache;
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
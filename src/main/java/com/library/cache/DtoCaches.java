@@ -0,0 +1,62 @@
+package com.library.cache;
+
+import com.library.dto.AuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.PublisherDTO;
+import com.library.mapper.AuthorMapper;
+import com.library.mapper.BookMapper;
+import com.library.mapper.PublisherMapper;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+@Component
+public class DtoCaches {
+    private final DtoCache<BookDTO> books;
+    private final DtoCache<AuthorDTO> authors;
+    private final DtoCache<PublisherDTO> publishers;
+
+    public DtoCaches(Environment env, BookMapper bookMapper, AuthorMapper authorMapper,
+                     PublisherMapper publisherMapper) {
+        this.books = create(env, "books", bookMapper::snapshot);
+        this.authors = create(env, "authors", authorMapper::snapshot);
+        this.publishers = create(env, "publishers", publisherMapper::snapshot);
+    }
+
+    public DtoCache<BookDTO> books() {
+        return books;
+    }
+
+    public DtoCache<AuthorDTO> authors() {
+        return authors;
+    }
+
+    public DtoCache<PublisherDTO> publishers() {
+        return publishers;
+    }
+
+    public Map<String, DtoCache<?>> all() {
+        Map<String, DtoCache<?>> caches = new LinkedHashMap<>();
+        caches.put("books", books);
+        caches.put("authors", authors);
+        caches.put("publishers", publishers);
+        return caches;
+    }
+
+    public void evictAll() {
+        all().values().forEach(DtoCache::evictAll);
+    }
+
+    private static <V> DtoCache<V> create(Environment env, String name, UnaryOperator<V> snapshot) {
+        boolean enabled = Boolean.parseBoolean(env.getProperty("cache.dto.enabled", "true"));
+        long maxSize = Long.parseLong(env.getProperty("cache.dto." + name + ".maxSize",
+                env.getProperty("cache.dto.default.maxSize", "10000")));
+        long ttlSeconds = Long.parseLong(env.getProperty("cache.dto." + name + ".ttlSeconds",
+                env.getProperty("cache.dto.default.ttlSeconds", "300")));
+        return new DtoCache<>(enabled, maxSize, Duration.ofSeconds(ttlSeconds), snapshot);
+    }
+}
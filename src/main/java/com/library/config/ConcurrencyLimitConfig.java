@@ -0,0 +1,52 @@
+package com.library.config;
+
+import com.library.limiter.AdaptiveLimit;
+import com.library.limiter.ConcurrencyLimiter;
+import com.library.limiter.ServiceLayerPointcut;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive concurrency limits in front of the connection pool, see {@link ConcurrencyLimiter}.
+ * Each limit is configured through {@code limiter.<read|write>.initial|min|max}; the AIMD
+ * parameters are shared.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+    /** Inside the method timer, so that rejections are timed, and outside the transaction advice. */
+    public static final int CONCURRENCY_LIMIT_ORDER = MetricsConfig.METHOD_TIMING_ORDER + 1;
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static ConcurrencyLimiter concurrencyLimiter(Environment env) {
+        return new ConcurrencyLimiter(Boolean.parseBoolean(env.getProperty("limiter.enabled", "true")),
+                limit(env, "read", 10, 2, 40), limit(env, "write", 4, 1, 8),
+                Long.parseLong(env.getProperty("limiter.retryAfterSeconds", "1")));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor concurrencyLimitAdvisor(ConcurrencyLimiter concurrencyLimiter) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ServiceLayerPointcut(), concurrencyLimiter);
+        advisor.setOrder(CONCURRENCY_LIMIT_ORDER);
+        return advisor;
+    }
+
+    private static AdaptiveLimit limit(Environment env, String kind, int initial, int min, int max) {
+        String prefix = "limiter." + kind + ".";
+        return new AdaptiveLimit(kind,
+                Integer.parseInt(env.getProperty(prefix + "initial", String.valueOf(initial))),
+                Integer.parseInt(env.getProperty(prefix + "min", String.valueOf(min))),
+                Integer.parseInt(env.getProperty(prefix + "max", String.valueOf(max))),
+                Double.parseDouble(env.getProperty("limiter.backoffRatio", "0.9")),
+                Double.parseDouble(env.getProperty("limiter.latencyTolerance", "2.0")),
+                TimeUnit.MILLISECONDS.toNanos(Long.parseLong(env.getProperty("limiter.minCongestedMillis", "50"))));
+    }
+}
@@ -0,0 +1,99 @@
+package com.library.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter that gives small bodies a {@code Content-Length}. Output is held back until it
+ * grows past {@code threshold} bytes: a body that ends before that is sent with its length, so
+ * Tomcat can leave it uncompressed ({@code server.compressionMinSize}); larger ones are streamed
+ * as they are written, in chunks, and compressed.
+ */
+class LengthAwareJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final int threshold;
+
+    LengthAwareJsonHttpMessageConverter(ObjectMapper objectMapper, int threshold) {
+        super(objectMapper);
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        HeldBackBody body = new HeldBackBody(outputMessage, threshold);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        body.finish();
+    }
+
+    private static final class HeldBackBody extends OutputStream {
+        private final HttpOutputMessage message;
+        private final byte[] buffer;
+        private int count;
+        private OutputStream target;
+
+        HeldBackBody(HttpOutputMessage message, int threshold) {
+            this.message = message;
+            this.buffer = new byte[threshold];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null && count < buffer.length) {
+                buffer[count++] = (byte) b;
+                return;
+            }
+            spill().write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null && count + length <= buffer.length) {
+                System.arraycopy(bytes, offset, buffer, count, length);
+                count += length;
+                return;
+            }
+            spill().write(bytes, offset, length);
+        }
+
+        // A flush while held back would commit the response without a length
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        void finish() throws IOException {
+            if (target == null) {
+                message.getHeaders().setContentLength(count);
+                message.getBody().write(buffer, 0, count);
+            }
+        }
+
+        private OutputStream spill() throws IOException {
+            if (target == null) {
+                target = message.getBody();
+                target.write(buffer, 0, count);
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.library.config;
+
+import com.library.cache.DtoCaches;
+import com.library.metrics.MethodTimer;
+import com.library.metrics.TimedLayersPointcut;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmInfoMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.hibernate.stat.Statistics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Prometheus registry and the meter binders feeding it. Binders are plain beans bound once the
+ * context is up, so that the data source can depend on the registry for pool metrics without
+ * the registry depending back on the entity manager factory.
+ */
+@Configuration
+public class MetricsConfig {
+    /** Outermost advice, so that timings include transaction handling and everything else. */
+    public static final int METHOD_TIMING_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
+    @Bean
+    public PrometheusMeterRegistry meterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().commonTags("application", "library");
+        return registry;
+    }
+
+    @Bean
+    public SmartInitializingSingleton meterBinderRegistration(ObjectProvider<MeterBinder> meterBinders,
+                                                              MeterRegistry meterRegistry) {
+        return () -> meterBinders.orderedStream().forEach(binder -> binder.bindTo(meterRegistry));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor methodTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new TimedLayersPointcut(), new MethodTimer(meterRegistry::getObject));
+        advisor.setOrder(METHOD_TIMING_ORDER);
+        return advisor;
+    }
+
+    @Bean
+    public MeterBinder jvmMetrics() {
+        return registry -> {
+            new ClassLoaderMetrics().bindTo(registry);
+            new JvmMemoryMetrics().bindTo(registry);
+            new JvmThreadMetrics().bindTo(registry);
+            new JvmInfoMetrics().bindTo(registry);
+            new ProcessorMetrics().bindTo(registry);
+            new UptimeMetrics().bindTo(registry);
+        };
+    }
+
+    @Bean
+    public JvmGcMetrics jvmGcMetrics() {
+        return new JvmGcMetrics();
+    }
+
+    /**
+     * Query counts, entity and collection activity and second-level cache hits and misses
+     * come from Hibernate's own binder; it binds nothing unless statistics are enabled
+     * ({@code metrics.hibernate.statistics}). The L2 hit ratio and the number of distinct slow
+     * queries (slower than {@code metrics.hibernate.slowQueryMillis}) are added on top.
+     */
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return registry -> {
+            new HibernateMetrics(sessionFactory, "library", Tags.empty()).bindTo(registry);
+
+            Statistics statistics = sessionFactory.getStatistics();
+            if (!statistics.isStatisticsEnabled()) {
+                return;
+            }
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, stats -> {
+                        long hits = stats.getSecondLevelCacheHitCount();
+                        long total = hits + stats.getSecondLevelCacheMissCount();
+                        return total == 0 ? Double.NaN : (double) hits / total;
+                    })
+                    .description("Share of second-level cache lookups served from the cache")
+                    .register(registry);
+            Gauge.builder("hibernate.query.slow", statistics, stats -> stats.getSlowQueries().size())
+                    .description("Distinct queries that exceeded the slow query threshold")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder dtoCacheMetrics(DtoCaches dtoCaches) {
+        return registry -> dtoCaches.all().forEach((name, cache) ->
+                CaffeineCacheMetrics.monitor(registry, cache.nativeCache(), "dto." + name));
+    }
+}
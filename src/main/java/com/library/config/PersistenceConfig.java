@@ -1,70 +1,207 @@
 package com.library.config;
 
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.library.advisor.StatementCapture;
+import com.library.datasource.ReplicaRoutingDataSource;
+import com.library.entity.CacheRegions;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
 import javax.sql.DataSource;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 @Configuration
 @PropertySource("classpath:application.properties")
-@EnableTransactionManagement
+@EnableTransactionManagement(proxyTargetClass = true)
 @EnableJpaRepositories(basePackages = "com.library.repository")
 public class PersistenceConfig {
+    /**
+     * The primary pool plus one pool per read replica listed in {@code db.replicas} (comma
+     * separated JDBC URLs, connecting as {@code db.replica.user}, falling back to {@code db.user}).
+     * Without replicas every transaction uses the primary.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = new HikariDataSource(poolConfig(env, "LibraryHikariPool", env.getProperty("db.url"),
+                env.getProperty("db.user"), env.getProperty("db.password"),
+                env.getProperty("db.pool.size", "10"), meterRegistry));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        String[] replicaUrls = env.getProperty("db.replicas", "").split(",");
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = poolConfig(env, "LibraryHikariPool-replica-" + (replicas.size() + 1), url.trim(),
+                    env.getProperty("db.replica.user", env.getProperty("db.user")),
+                    env.getProperty("db.replica.password", env.getProperty("db.password")),
+                    env.getProperty("db.replica.pool.size", env.getProperty("db.pool.size", "10")), meterRegistry);
+            // An unreachable replica must not keep the application from starting; the lag check skips it.
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas,
+                Long.parseLong(env.getProperty("db.replica.maxLagMillis", "5000")),
+                Long.parseLong(env.getProperty("db.replica.lagCheckMillis", "1000")));
+    }
+
+    /**
+     * Defers fetching a physical connection until the first statement, by which time the
+     * transaction's read-only flag is known to the routing data source. Transactions served
+     * entirely from cache never take a connection at all.
+     */
     @Bean
-    public DataSource dataSource(Environment env) {
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariConfig poolConfig(Environment env, String poolName, String url, String user, String password,
+                                           String size, ObjectProvider<MeterRegistry> meterRegistry) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(env.getProperty("db.url"));
-        config.setUsername(env.getProperty("db.user"));
-        config.setPassword(env.getProperty("db.password"));
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
         config.setDriverClassName(env.getProperty("db.driver"));
-        config.setMaximumPoolSize(Integer.parseInt(env.getProperty("db.pool.size", "10")));
+        config.setMaximumPoolSize(Integer.parseInt(size));
         config.setMinimumIdle(Integer.parseInt(env.getProperty("db.pool.minIdle", "2")));
         config.setIdleTimeout(30000);
         config.setMaxLifetime(1800000);
-        config.setConnectionTimeout(10000);
-        config.setPoolName("LibraryHikariPool");
+        config.setConnectionTimeout(Long.parseLong(env.getProperty("db.pool.connectionTimeoutMillis", "10000")));
+        config.setPoolName(poolName);
+        // Lets the driver collapse a JDBC insert batch into multi-row INSERT statements.
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        meterRegistry.ifAvailable(config::setMetricRegistry);
+        return config;
+    }
+
+    /**
+     * JCache manager backing the Hibernate second-level cache. Regions are only created when
+     * {@code cache.l2.enabled=true}; each one is bounded by {@code cache.l2.<region>.maxSize}
+     * and {@code cache.l2.<region>.ttlSeconds}, falling back to {@code cache.l2.default.*}.
+     * The update-timestamps region is never bounded, as Hibernate requires.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment env) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("library-l2"), PersistenceConfig.class.getClassLoader());
+        if (!isSecondLevelCacheEnabled(env)) {
+            return cacheManager;
+        }
 
-        return new HikariDataSource(config);
+        for (String region : CacheRegions.BOUNDED) {
+            long maxSize = Long.parseLong(env.getProperty("cache.l2." + region + ".maxSize",
+                    env.getProperty("cache.l2.default.maxSize", "10000")));
+            long ttlSeconds = Long.parseLong(env.getProperty("cache.l2." + region + ".ttlSeconds",
+                    env.getProperty("cache.l2.default.ttlSeconds", "600")));
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, timestamps);
+
+        return cacheManager;
+    }
+
+    /**
+     * Records the SELECT statements Hibernate issues for the index advisor, up to
+     * {@code indexAdvisor.maxStatements} distinct ones; nothing is recorded when
+     * {@code indexAdvisor.enabled=false}.
+     */
+    @Bean
+    public StatementCapture statementCapture(Environment env) {
+        boolean enabled = Boolean.parseBoolean(env.getProperty("indexAdvisor.enabled", "true"));
+        return new StatementCapture(enabled ? Integer.parseInt(env.getProperty("indexAdvisor.maxStatements", "500")) : 0);
     }
 
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Environment env,
+                                                                       CacheManager secondLevelCacheManager,
+                                                                       StatementCapture statementCapture) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
         em.setPackagesToScan("com.library.entity");
+        // Hibernate 6.6's SessionFactory clashes with the JPA 3.2 API on getSchemaManager(); expose plain JPA.
+        em.setEntityManagerFactoryInterface(EntityManagerFactory.class);
 
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         vendorAdapter.setGenerateDdl(false);
-        vendorAdapter.setShowSql(true);
+        vendorAdapter.setShowSql(Boolean.parseBoolean(env.getProperty("db.showSql", "true")));
 
         em.setJpaVendorAdapter(vendorAdapter);
-        em.setJpaProperties(hibernateProperties());
+        em.setJpaProperties(hibernateProperties(env, secondLevelCacheManager, statementCapture));
 
         return em;
     }
 
-    private Properties hibernateProperties() {
+    private Properties hibernateProperties(Environment env, CacheManager secondLevelCacheManager,
+                                           StatementCapture statementCapture) {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
-        properties.put("hibernate.show_sql", "true");
+        properties.put("hibernate.show_sql", env.getProperty("db.showSql", "true"));
         properties.put("hibernate.format_sql", "true");
         properties.put("hibernate.hbm2ddl.auto", "validate");
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("db.batchSize", "50"));
+        properties.put("hibernate.jdbc.batch_versioned_data", "true");
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
+        properties.put("hibernate.default_batch_fetch_size", env.getProperty("db.batchSize", "50"));
+        properties.put("hibernate.generate_statistics", env.getProperty("metrics.hibernate.statistics", "true"));
+        properties.put("hibernate.log_slow_query", env.getProperty("metrics.hibernate.slowQueryMillis", "200"));
+        if (statementCapture.isEnabled()) {
+            properties.put("hibernate.session_factory.statement_inspector", statementCapture);
+        }
+
+        if (isSecondLevelCacheEnabled(env)) {
+            properties.put("hibernate.cache.use_second_level_cache", "true");
+            properties.put("hibernate.cache.use_query_cache", "true");
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        } else {
+            properties.put("hibernate.cache.use_second_level_cache", "false");
+            properties.put("hibernate.cache.use_query_cache", "false");
+        }
         return properties;
     }
 
+    private static boolean isSecondLevelCacheEnabled(Environment env) {
+        return Boolean.parseBoolean(env.getProperty("cache.l2.enabled", "false"));
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(LocalContainerEntityManagerFactoryBean entityManagerFactory) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
@@ -1,10 +1,39 @@
 package com.library.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.TSFBuilder;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.library.dto.AuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.PublisherDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.converter.HttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -14,8 +43,104 @@ import java.util.List;
 @ComponentScan(basePackages = "com.library")
 public class WebConfig implements WebMvcConfigurer {
 
+    private final Environment env;
+
+    public WebConfig(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return jsonMapper();
+    }
+
+    public static JsonMapper jsonMapper() {
+        return configure(JsonMapper.builder(factory(new JsonFactoryBuilder())));
+    }
+
+    public static SmileMapper smileMapper() {
+        return configure(SmileMapper.builder(factory(SmileFactory.builder())));
+    }
+
+    public static CBORMapper cborMapper() {
+        return configure(CBORMapper.builder(factory(CBORFactory.builder())));
+    }
+
+    /**
+     * Generator and parser buffers are pooled in a shared deque rather than per thread, which
+     * would give each virtual thread, and so each request, buffers of its own. Field names are
+     * not interned; the DTOs have few and they are canonicalized anyway.
+     */
+    private static <F extends JsonFactory, B extends TSFBuilder<F, B>> F factory(B builder) {
+        return builder
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+                .build();
+    }
+
+    /**
+     * The web layer's settings, shared by all formats. Dates are written as ISO-8601 strings
+     * ({@code "2024-05-01"}), not as arrays or timestamps. DTOs declare field filters for
+     * {@code ?fields=}; unless a response sets one, all fields are written.
+     * <p>
+     * Blackbird replaces reflective property access with generated lambdas. Detection the DTOs
+     * do not rely on (is-getters, final fields as mutators, views) is switched off, and the
+     * serializers and deserializers of the entity DTOs are built up front, so that the first
+     * requests do not pay for introspection and code generation.
+     */
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> M configure(B builder) {
+        M objectMapper = builder
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(MapperFeature.AUTO_DETECT_IS_GETTERS, MapperFeature.ALLOW_FINAL_FIELDS_AS_MUTATORS,
+                        MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .filterProvider(new SimpleFilterProvider().setFailOnUnknownId(false))
+                .build();
+        for (Class<?> type : List.of(BookDTO.class, AuthorDTO.class, PublisherDTO.class)) {
+            objectMapper.writerFor(type);
+            objectMapper.readerFor(type);
+        }
+        return objectMapper;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Integer.parseInt(env.getProperty("web.async.poolSize", "4")));
+        executor.setMaxPoolSize(Integer.parseInt(env.getProperty("web.async.poolSize", "4")));
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(Long.parseLong(env.getProperty("web.async.timeout", "3600000")));
+    }
+
+    // The body's format depends on Accept, so shared caches have to keep the formats apart
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * JSON unless the {@code Accept} header asks for Smile ({@code application/x-jackson-smile})
+     * or CBOR ({@code application/cbor}); request bodies are read in all three. JSON bodies below
+     * the compression threshold are sent with a length, so that Tomcat leaves them uncompressed.
+     */
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        converters.add(new MappingJackson2HttpMessageConverter());
+        converters.add(new LengthAwareJsonHttpMessageConverter(objectMapper(),
+                Integer.parseInt(env.getProperty("server.compressionMinSize", "2048"))));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileMapper()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.library.controller;
+
+import com.library.dto.AsyncUpdateDTO;
+import com.library.writebehind.WriteBehindQueue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/updates")
+public class AsyncUpdateController {
+    static final String PREFER = "Prefer";
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    private final WriteBehindQueue writeBehindQueue;
+
+    public AsyncUpdateController(WriteBehindQueue writeBehindQueue) {
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<AsyncUpdateDTO> getUpdate(@PathVariable String trackingId) {
+        return writeBehindQueue.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /** Whether a {@code Prefer} header (RFC 7240) asks for {@code respond-async}. */
+    static boolean isAsyncPreferred(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            int parameters = preference.indexOf(';');
+            String token = (parameters < 0 ? preference : preference.substring(0, parameters)).trim();
+            if (RESPOND_ASYNC.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 202 pointing at the update's status resource. */
+    static ResponseEntity<AsyncUpdateDTO> accepted(AsyncUpdateDTO update) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentServletMapping()
+                        .path("/updates/{trackingId}")
+                        .buildAndExpand(update.trackingId())
+                        .toUri())
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(update);
+    }
+}
@@ -1,36 +1,87 @@
 package com.library.controller;
 
+import com.library.dto.AsyncUpdateDTO;
 import com.library.dto.AuthorDTO;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FetchView;
+import com.library.dto.FieldSelection;
+import com.library.dto.VersionStampDTO;
 import com.library.service.impl.AuthorServiceImpl;
+import com.library.writebehind.WriteBehindQueue;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Set;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/authors")
 public class AuthorController {
 
     private final AuthorServiceImpl authorServiceImpl;
+    private final WriteBehindQueue writeBehindQueue;
 
     @Autowired
-    public AuthorController(AuthorServiceImpl authorServiceImpl) {
+    public AuthorController(AuthorServiceImpl authorServiceImpl, WriteBehindQueue writeBehindQueue) {
         this.authorServiceImpl = authorServiceImpl;
+        this.writeBehindQueue = writeBehindQueue;
     }
 
+    /** {@code ?fields=} narrows the view to some of its fields, e.g. {@code fields=id,name}. */
     @GetMapping
-    public ResponseEntity<Set<AuthorDTO>> getAllAuthors() {
-        Set<AuthorDTO> authors = authorServiceImpl.getAllAuthors();
-        return ResponseEntity.ok(authors);
+    public ResponseEntity<MappingJacksonValue> getAllAuthors(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldFilters.forPage(FieldFilters.parseView(view), fields,
+                FieldSelection.AUTHOR, FieldSelection.AUTHOR_SUMMARY);
+        VersionStampDTO version = authorServiceImpl.getAuthorsVersion(after, limit, selection);
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        CursorPageDTO<AuthorDTO> authors = authorServiceImpl.getAuthors(after, limit, selection);
+        return ResponseEntity.ok(FieldFilters.filter(authors, AuthorDTO.FIELD_FILTER, selection));
     }
 
+    /**
+     * {@code ?view=summary|withIds|full}, {@code withIds} by default, narrowed to
+     * {@code ?fields=} if given. Full views are not conditional: the embedded books change
+     * without the author's version.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<AuthorDTO> getAuthorById(@PathVariable int id) {
-        return authorServiceImpl.getAuthorById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<MappingJacksonValue> getAuthorById(
+            @PathVariable int id,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FetchView fetchView = FieldFilters.parseView(view);
+        if (fetchView == FetchView.FULL && fields == null) {
+            return authorServiceImpl.getFullAuthorById(id)
+                    .map(full -> ResponseEntity.ok(new MappingJacksonValue(full)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
+        FieldSelection selection = FieldFilters.select(fetchView, fields,
+                FieldSelection.AUTHOR, FieldSelection.AUTHOR_SUMMARY);
+        Optional<VersionStampDTO> version = authorServiceImpl.getAuthorVersion(id, selection);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(version.get().etag(), version.get().lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        return authorServiceImpl.getAuthorById(id, selection)
+                .map(author -> ResponseEntity.ok(FieldFilters.filter(author, AuthorDTO.FIELD_FILTER, selection)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -44,15 +95,20 @@ public class AuthorController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /** With {@code Prefer: respond-async} the update is queued and answered with 202 and a tracking id. */
     @PutMapping("/{id}")
-    public ResponseEntity<Void> updateAuthor(
+    public ResponseEntity<AsyncUpdateDTO> updateAuthor(
             @PathVariable int id,
-            @RequestBody @Valid AuthorDTO author) {
+            @RequestBody @Valid AuthorDTO author,
+            @RequestHeader(value = AsyncUpdateController.PREFER, required = false) String prefer) {
 
         if (author.getId() != id) {
             return ResponseEntity.badRequest().build();
         }
 
+        if (AsyncUpdateController.isAsyncPreferred(prefer)) {
+            return AsyncUpdateController.accepted(writeBehindQueue.enqueueAuthor(id, author));
+        }
         authorServiceImpl.updateAuthor(id, author);
         return ResponseEntity.ok().build();
     }
@@ -62,4 +118,19 @@ public class AuthorController {
         authorServiceImpl.deleteAuthor(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> addAuthors(@RequestBody List<AuthorDTO> authors) {
+        return ResponseEntity.ok(authorServiceImpl.addAuthors(authors));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updateAuthors(@RequestBody List<AuthorDTO> authors) {
+        return ResponseEntity.ok(authorServiceImpl.updateAuthors(authors));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteAuthors(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(authorServiceImpl.deleteAuthors(ids));
+    }
+}
@@ -1,34 +1,154 @@
 package com.library.controller;
 
+import com.library.dto.AsyncUpdateDTO;
 import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSort;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FetchView;
+import com.library.dto.FieldSelection;
+import com.library.dto.VersionStampDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.library.exception.InvalidPageRequestException;
 import com.library.service.impl.BookServiceImpl;
+import com.library.writebehind.WriteBehindQueue;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
     private final BookServiceImpl bookServiceImpl;
+    private final ObjectMapper objectMapper;
+    private final WriteBehindQueue writeBehindQueue;
 
-    public BookController(BookServiceImpl bookServiceImpl) {
+    public BookController(BookServiceImpl bookServiceImpl, ObjectMapper objectMapper,
+                          WriteBehindQueue writeBehindQueue) {
         this.bookServiceImpl = bookServiceImpl;
+        this.objectMapper = objectMapper;
+        this.writeBehindQueue = writeBehindQueue;
     }
 
+    /** {@code ?fields=} narrows the view to some of its fields, e.g. {@code fields=id,title}. */
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        List<BookDTO> books = bookServiceImpl.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<MappingJacksonValue> getAllBooks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate publishedTo,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldFilters.forPage(FieldFilters.parseView(view), fields,
+                FieldSelection.BOOK, FieldSelection.BOOK_SUMMARY);
+        BookListCriteriaDTO criteria = new BookListCriteriaDTO(publishedFrom, publishedTo, BookSort.fromParameter(sort)
+                .orElseThrow(() -> new InvalidPageRequestException("Unsupported sort: " + sort)));
+        VersionStampDTO version = bookServiceImpl.getBooksVersion(criteria, after, limit, selection);
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        CursorPageDTO<BookDTO> books = bookServiceImpl.getBooks(criteria, after, limit, selection);
+        return ResponseEntity.ok(FieldFilters.filter(books, BookDTO.FIELD_FILTER, selection));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<MappingJacksonValue> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer publisherId,
+            @RequestParam(required = false) Integer authorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
+        FieldSelection selection = FieldFilters.select(FetchView.WITH_IDS, fields,
+                FieldSelection.BOOK, FieldSelection.BOOK_SUMMARY);
+        BookSearchCriteriaDTO criteria = new BookSearchCriteriaDTO(q, genre, publisherId, authorId, from, to);
+        return ResponseEntity.ok(FieldFilters.filter(bookServiceImpl.searchBooks(criteria, after, limit, selection),
+                BookDTO.FIELD_FILTER, selection));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        ObjectWriter writer = objectMapper.writerFor(BookDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                bookServiceImpl.exportBooks(books -> {
+                    try {
+                        for (BookDTO book : books) {
+                            writer.writeValue(generator, book);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
+    /**
+     * {@code ?view=summary|withIds|full}, {@code withIds} by default, narrowed to
+     * {@code ?fields=} if given. Full views are not conditional: the embedded publisher and
+     * authors change without the book's version.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<BookDTO> getBookById(@PathVariable int id) {
-        return bookServiceImpl.getBookById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<MappingJacksonValue> getBookById(
+            @PathVariable int id,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FetchView fetchView = FieldFilters.parseView(view);
+        if (fetchView == FetchView.FULL && fields == null) {
+            return bookServiceImpl.getFullBookById(id)
+                    .map(full -> ResponseEntity.ok(new MappingJacksonValue(full)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
+        FieldSelection selection = FieldFilters.select(fetchView, fields,
+                FieldSelection.BOOK, FieldSelection.BOOK_SUMMARY);
+        Optional<VersionStampDTO> version = bookServiceImpl.getBookVersion(id, selection);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(version.get().etag(), version.get().lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        return bookServiceImpl.getBookById(id, selection)
+                .map(book -> ResponseEntity.ok(FieldFilters.filter(book, BookDTO.FIELD_FILTER, selection)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -42,15 +162,20 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /** With {@code Prefer: respond-async} the update is queued and answered with 202 and a tracking id. */
     @PutMapping("/{id}")
-    public ResponseEntity<Void> updateBook(
+    public ResponseEntity<AsyncUpdateDTO> updateBook(
             @PathVariable int id,
-            @RequestBody @Valid BookDTO book) {
+            @RequestBody @Valid BookDTO book,
+            @RequestHeader(value = AsyncUpdateController.PREFER, required = false) String prefer) {
 
         if (book.getId() != id) {
             return ResponseEntity.badRequest().build();
         }
 
+        if (AsyncUpdateController.isAsyncPreferred(prefer)) {
+            return AsyncUpdateController.accepted(writeBehindQueue.enqueueBook(id, book));
+        }
         bookServiceImpl.updateBook(id, book);
         return ResponseEntity.ok().build();
     }
@@ -60,4 +185,19 @@ public class BookController {
         bookServiceImpl.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> addBooks(@RequestBody List<BookDTO> books) {
+        return ResponseEntity.ok(bookServiceImpl.addBooks(books));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updateBooks(@RequestBody List<BookDTO> books) {
+        return ResponseEntity.ok(bookServiceImpl.updateBooks(books));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deleteBooks(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(bookServiceImpl.deleteBooks(ids));
+    }
+}
@@ -0,0 +1,38 @@
+package com.library.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.library.cache.DtoCaches;
+import com.library.dto.CacheStatsDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/caches")
+public class CacheController {
+
+    private final DtoCaches dtoCaches;
+
+    public CacheController(DtoCaches dtoCaches) {
+        this.dtoCaches = dtoCaches;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        dtoCaches.all().forEach((name, cache) -> {
+            CacheStats cacheStats = cache.stats();
+            stats.put(name, new CacheStatsDTO(
+                    cache.estimatedSize(),
+                    cacheStats.hitCount(),
+                    cacheStats.missCount(),
+                    cacheStats.hitRate(),
+                    cacheStats.evictionCount()));
+        });
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,53 @@
+package com.library.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.library.dto.FetchView;
+import com.library.dto.FieldSelection;
+import com.library.exception.InvalidPageRequestException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * {@code ?view=} and {@code ?fields=} of the read endpoints. Fields narrow the view: a summary
+ * has no association ids to select, and a full view embeds whole entities, so it takes no
+ * fields. Responses are filtered down to the selected fields, since a DTO served from the cache
+ * carries all of them, and a selected field can be null.
+ */
+final class FieldFilters {
+
+    private FieldFilters() {}
+
+    static FetchView parseView(String view) {
+        return FetchView.fromParameter(view)
+                .orElseThrow(() -> new InvalidPageRequestException("Unsupported view: " + view));
+    }
+
+    /** Pages carry at most association ids, never the associated entities. */
+    static FieldSelection forPage(FetchView view, String fields, FieldSelection all, FieldSelection summary) {
+        if (view == FetchView.FULL) {
+            throw new InvalidPageRequestException("Unsupported view for a page: " + view.parameter());
+        }
+        return select(view, fields, all, summary);
+    }
+
+    static FieldSelection select(FetchView view, String fields, FieldSelection all, FieldSelection summary) {
+        if (fields == null) {
+            return view == FetchView.SUMMARY ? summary : all;
+        }
+        if (view == FetchView.FULL) {
+            throw new InvalidPageRequestException("Fields cannot be combined with view: " + view.parameter());
+        }
+        return (view == FetchView.SUMMARY ? summary : all).select(fields)
+                .orElseThrow(() -> new InvalidPageRequestException("Unsupported fields: " + fields));
+    }
+
+    static MappingJacksonValue filter(Object body, String filterId, FieldSelection fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.isComplete()) {
+            value.setFilters(new SimpleFilterProvider()
+                    .setFailOnUnknownId(false)
+                    .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names())));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.controller;
+
+import com.library.dto.ImportFormat;
+import com.library.dto.ImportResultDTO;
+import com.library.dto.ImportSourceDTO;
+import com.library.dto.ImportTable;
+import com.library.service.impl.CatalogImportServiceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/admin/import")
+public class ImportController {
+
+    private final CatalogImportServiceImpl catalogImportServiceImpl;
+
+    public ImportController(CatalogImportServiceImpl catalogImportServiceImpl) {
+        this.catalogImportServiceImpl = catalogImportServiceImpl;
+    }
+
+    @PostMapping(value = "/{table}", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResultDTO> importTable(
+            @PathVariable String table,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        Optional<ImportTable> importTable = ImportTable.fromTableName(table);
+        if (importTable.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        ImportFormat format = Arrays.stream(ImportFormat.values())
+                .filter(candidate -> mediaType.isCompatibleWith(MediaType.parseMediaType(candidate.mediaType())))
+                .findFirst()
+                .orElseThrow();
+
+        ImportResultDTO result = catalogImportServiceImpl.importCatalog(
+                List.of(new ImportSourceDTO(importTable.get(), format, body)));
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,27 @@
+package com.library.controller;
+
+import com.library.dto.IndexAdvisorReportDTO;
+import com.library.service.impl.IndexAdvisorServiceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/index-advisor")
+public class IndexAdvisorController {
+
+    private final IndexAdvisorServiceImpl indexAdvisorServiceImpl;
+
+    public IndexAdvisorController(IndexAdvisorServiceImpl indexAdvisorServiceImpl) {
+        this.indexAdvisorServiceImpl = indexAdvisorServiceImpl;
+    }
+
+    @GetMapping
+    public ResponseEntity<IndexAdvisorReportDTO> getReport(@RequestParam(required = false) Long minRows) {
+        return indexAdvisorServiceImpl.advise(minRows)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
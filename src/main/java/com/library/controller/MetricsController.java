@@ -0,0 +1,28 @@
+package com.library.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+    private static final String PROMETHEUS_TEXT_FORMAT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry meterRegistry;
+
+    public MetricsController(PrometheusMeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Written straight to the response: the only registered message converter is Jackson.
+    @GetMapping
+    public void scrape(HttpServletResponse response) throws IOException {
+        response.setContentType(PROMETHEUS_TEXT_FORMAT);
+        meterRegistry.scrape(response.getOutputStream(), PROMETHEUS_TEXT_FORMAT);
+    }
+}
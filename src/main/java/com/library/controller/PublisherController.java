@@ -1,13 +1,21 @@
 package com.library.controller;
 
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FetchView;
+import com.library.dto.FieldSelection;
 import com.library.dto.PublisherDTO;
+import com.library.dto.VersionStampDTO;
 import com.library.service.impl.PublisherServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Set;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/publishers")
@@ -19,16 +27,56 @@ public class PublisherController {
         this.publisherServiceImpl = publisherServiceImpl;
     }
 
+    /** {@code ?fields=} narrows the view to some of its fields, e.g. {@code fields=id,name}. */
     @GetMapping
-    public ResponseEntity<Set<PublisherDTO>> getAllPublishers() {
-        Set<PublisherDTO> publishers = publisherServiceImpl.getAllPublishers();
-        return ResponseEntity.ok(publishers);
+    public ResponseEntity<MappingJacksonValue> getAllPublishers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldFilters.forPage(FieldFilters.parseView(view), fields,
+                FieldSelection.PUBLISHER, FieldSelection.PUBLISHER_SUMMARY);
+        VersionStampDTO version = publisherServiceImpl.getPublishersVersion(after, limit, selection);
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        CursorPageDTO<PublisherDTO> publishers = publisherServiceImpl.getPublishers(after, limit, selection);
+        return ResponseEntity.ok(FieldFilters.filter(publishers, PublisherDTO.FIELD_FILTER, selection));
     }
 
+    /**
+     * {@code ?view=summary|withIds|full}, {@code withIds} by default, narrowed to
+     * {@code ?fields=} if given. Full views are not conditional: the embedded books change
+     * without the publisher's version.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<PublisherDTO> getPublisherById(@PathVariable int id) {
-        return publisherServiceImpl.getPublisherById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<MappingJacksonValue> getPublisherById(
+            @PathVariable int id,
+            @RequestParam(defaultValue = "withIds") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FetchView fetchView = FieldFilters.parseView(view);
+        if (fetchView == FetchView.FULL && fields == null) {
+            return publisherServiceImpl.getFullPublisherById(id)
+                    .map(full -> ResponseEntity.ok(new MappingJacksonValue(full)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+
+        FieldSelection selection = FieldFilters.select(fetchView, fields,
+                FieldSelection.PUBLISHER, FieldSelection.PUBLISHER_SUMMARY);
+        Optional<VersionStampDTO> version = publisherServiceImpl.getPublisherVersion(id, selection);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(version.get().etag(), version.get().lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        return publisherServiceImpl.getPublisherById(id, selection)
+                .map(publisher -> ResponseEntity.ok(
+                        FieldFilters.filter(publisher, PublisherDTO.FIELD_FILTER, selection)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -60,4 +108,19 @@ public class PublisherController {
         publisherServiceImpl.deletePublisher(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> addPublishers(@RequestBody List<PublisherDTO> publishers) {
+        return ResponseEntity.ok(publisherServiceImpl.addPublishers(publishers));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> updatePublishers(@RequestBody List<PublisherDTO> publishers) {
+        return ResponseEntity.ok(publisherServiceImpl.updatePublishers(publishers));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDTO>> deletePublishers(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(publisherServiceImpl.deletePublishers(ids));
+    }
+}
@@ -0,0 +1,28 @@
+package com.library.controller;
+
+import com.library.dto.SuggestionsDTO;
+import com.library.service.impl.SuggestServiceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/search")
+public class SuggestController {
+
+    private final SuggestServiceImpl suggestServiceImpl;
+
+    public SuggestController(SuggestServiceImpl suggestServiceImpl) {
+        this.suggestServiceImpl = suggestServiceImpl;
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestionsDTO> suggest(@RequestParam String prefix,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        return suggestServiceImpl.suggest(prefix, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
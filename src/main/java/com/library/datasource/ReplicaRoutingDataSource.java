@@ -0,0 +1,168 @@
+package com.library.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the least loaded read replica and everything else to the
+ * primary. Load is the number of active connections plus threads waiting for one in the
+ * replica's pool. Replicas lagging more than {@code maxLagMillis} behind the primary, or whose
+ * lag cannot be read, are skipped until the next check shows them caught up; without a usable
+ * replica reads go to the primary. Reads whose results outlive the request, such as loads that
+ * fill a cache, are run {@link #onPrimary on the primary}: a replica within the allowed lag can
+ * still predate a write the client has already seen succeed, and the cache would keep that.
+ * <p>
+ * The lookup key is taken from the transaction synchronization, which is only initialized after
+ * the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final long UNKNOWN_LAG = Long.MAX_VALUE;
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint)
+                   END""";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long lagCheckMillis;
+    private final ScheduledExecutorService lagMonitor;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    long maxLagMillis, long lagCheckMillis) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLagMillis;
+        this.lagCheckMillis = lagCheckMillis;
+        this.lagMonitor = replicas.isEmpty() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.key(), replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (lagMonitor != null) {
+            replicas.forEach(this::checkLag);
+            lagMonitor.scheduleWithFixedDelay(() -> replicas.forEach(this::checkLag),
+                    lagCheckMillis, lagCheckMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs {@code reads} with connections taken from the primary, even in a read-only
+     * transaction. Only connections first used inside {@code reads} are affected.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (PRIMARY_ONLY.get() != null) {
+            return reads.get();
+        }
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || PRIMARY_ONLY.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica leastLoaded = null;
+        int lowestLoad = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (replica.lagMillis > maxLagMillis) {
+                continue;
+            }
+            int load = replica.load();
+            if (load < lowestLoad) {
+                leastLoaded = replica;
+                lowestLoad = load;
+            }
+        }
+        return leastLoaded != null ? leastLoaded.key() : PRIMARY;
+    }
+
+    private void checkLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            long lag = resultSet.getLong(1);
+            replica.lagMillis = resultSet.wasNull() ? UNKNOWN_LAG : lag;
+        } catch (SQLException e) {
+            replica.lagMillis = UNKNOWN_LAG;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("library.datasource.replica.lag", replica,
+                            r -> r.lagMillis == UNKNOWN_LAG ? Double.NaN : r.lagMillis)
+                    .description("Replication lag of a read replica in milliseconds, NaN when unknown")
+                    .tag("pool", replica.key())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile long lagMillis = UNKNOWN_LAG;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String key() {
+            return dataSource.getPoolName();
+        }
+
+        private int load() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record AsyncUpdateDTO(String trackingId, String entity, int id, AsyncUpdateStatus status, String error) {}
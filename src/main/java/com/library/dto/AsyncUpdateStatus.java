@@ -0,0 +1,7 @@
+package com.library.dto;
+
+public enum AsyncUpdateStatus {
+    QUEUED,
+    APPLIED,
+    FAILED
+}
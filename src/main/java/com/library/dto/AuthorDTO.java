@@ -1,14 +1,23 @@
 package com.library.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
+@JsonFilter(AuthorDTO.FIELD_FILTER)
 public class AuthorDTO {
+    public static final String FIELD_FILTER = "authorFields";
+
     private Integer id;
     private String name;
     private String surname;
     private String country;
-    private Set<Integer> bookIds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IdSet bookIds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<BookDTO> books;
 
     public Integer getId() {
         return id;
@@ -26,10 +35,14 @@ public class AuthorDTO {
         return country;
     }
 
-    public Set<Integer> getBookIds() {
+    public IdSet getBookIds() {
         return bookIds;
     }
 
+    public List<BookDTO> getBooks() {
+        return books;
+    }
+
     public void setId(Integer id) {
         this.id = id;
     }
@@ -46,21 +59,25 @@ public class AuthorDTO {
         this.country = country;
     }
 
-    public void setBookIds(Set<Integer> bookIds) {
+    public void setBookIds(IdSet bookIds) {
         this.bookIds = bookIds;
     }
 
+    public void setBooks(List<BookDTO> books) {
+        this.books = books;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AuthorDTO authorDTO = (AuthorDTO) o;
-        return Objects.equals(id, authorDTO.id) && Objects.equals(name, authorDTO.name) && Objects.equals(surname, authorDTO.surname) && Objects.equals(country, authorDTO.country) && Objects.equals(bookIds, authorDTO.bookIds);
+        return Objects.equals(id, authorDTO.id) && Objects.equals(name, authorDTO.name) && Objects.equals(surname, authorDTO.surname) && Objects.equals(country, authorDTO.country) && Objects.equals(bookIds, authorDTO.bookIds) && Objects.equals(books, authorDTO.books);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, surname, country, bookIds);
+        return Objects.hash(id, name, surname, country, bookIds, books);
     }
 
     @Override
@@ -71,6 +88,7 @@ public class AuthorDTO {
                 ", surname='" + surname + '\'' +
                 ", country='" + country + '\'' +
                 ", bookIds=" + bookIds +
+                ", books=" + books +
                 '}';
     }
 }
@@ -1,17 +1,29 @@
 package com.library.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
+@JsonFilter(BookDTO.FIELD_FILTER)
 public class BookDTO {
+    public static final String FIELD_FILTER = "bookFields";
+
     private Integer id;
     private String title;
-    private String publishedDate;
+    private LocalDate publishedDate;
     private String genre;
     private Integer publisherId;
-    private Set<Integer> authorIds;
-
-    public int getId() {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IdSet authorIds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PublisherDTO publisher;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<AuthorDTO> authors;
+
+    public Integer getId() {
         return id;
     }
 
@@ -19,7 +31,7 @@ public class BookDTO {
         return title;
     }
 
-    public String getPublishedDate() {
+    public LocalDate getPublishedDate() {
         return publishedDate;
     }
 
@@ -31,11 +43,19 @@ public class BookDTO {
         return publisherId;
     }
 
-    public Set<Integer> getAuthorIds() {
+    public IdSet getAuthorIds() {
         return authorIds;
     }
 
-    public void setId(int id) {
+    public PublisherDTO getPublisher() {
+        return publisher;
+    }
+
+    public List<AuthorDTO> getAuthors() {
+        return authors;
+    }
+
+    public void setId(Integer id) {
         this.id = id;
     }
 
@@ -43,7 +63,7 @@ public class BookDTO {
         this.title = title;
     }
 
-    public void setPublishedDate(String publishedDate) {
+    public void setPublishedDate(LocalDate publishedDate) {
         this.publishedDate = publishedDate;
     }
 
@@ -55,21 +75,29 @@ public class BookDTO {
         this.publisherId = publisherId;
     }
 
-    public void setAuthorIds(Set<Integer> authorIds) {
+    public void setAuthorIds(IdSet authorIds) {
         this.authorIds = authorIds;
     }
 
+    public void setPublisher(PublisherDTO publisher) {
+        this.publisher = publisher;
+    }
+
+    public void setAuthors(List<AuthorDTO> authors) {
+        this.authors = authors;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         BookDTO bookDTO = (BookDTO) o;
-        return Objects.equals(id, bookDTO.id) && Objects.equals(title, bookDTO.title) && Objects.equals(publishedDate, bookDTO.publishedDate) && Objects.equals(genre, bookDTO.genre) && Objects.equals(publisherId, bookDTO.publisherId) && Objects.equals(authorIds, bookDTO.authorIds);
+        return Objects.equals(id, bookDTO.id) && Objects.equals(title, bookDTO.title) && Objects.equals(publishedDate, bookDTO.publishedDate) && Objects.equals(genre, bookDTO.genre) && Objects.equals(publisherId, bookDTO.publisherId) && Objects.equals(authorIds, bookDTO.authorIds) && Objects.equals(publisher, bookDTO.publisher) && Objects.equals(authors, bookDTO.authors);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, publishedDate, genre, publisherId, authorIds);
+        return Objects.hash(id, title, publishedDate, genre, publisherId, authorIds, publisher, authors);
     }
 
     @Override
@@ -81,6 +109,8 @@ public class BookDTO {
                 ", genre='" + genre + '\'' +
                 ", publisherId=" + publisherId +
                 ", authorIds=" + authorIds +
+                ", publisher=" + publisher +
+                ", authors=" + authors +
                 '}';
     }
 }
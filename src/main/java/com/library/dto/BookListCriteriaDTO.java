@@ -0,0 +1,8 @@
+package com.library.dto;
+
+import java.time.LocalDate;
+
+/** Filters and order of {@code GET /books}; the date bounds are inclusive and optional. */
+public record BookListCriteriaDTO(LocalDate publishedFrom, LocalDate publishedTo, BookSort sort) {
+    public static final BookListCriteriaDTO ALL = new BookListCriteriaDTO(null, null, BookSort.ID);
+}
@@ -0,0 +1,7 @@
+package com.library.dto;
+
+import java.time.LocalDate;
+
+/** Filters of a book search; every component is optional. */
+public record BookSearchCriteriaDTO(String query, String genre, Integer publisherId, Integer authorId,
+                                    LocalDate from, LocalDate to) {}
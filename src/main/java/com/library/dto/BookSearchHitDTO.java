@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record BookSearchHitDTO(BookDTO book, float rank) {}
@@ -0,0 +1,6 @@
+package com.library.dto;
+
+import java.util.List;
+
+/** A page of ranked search hits; facets are only computed for the first page and are null after it. */
+public record BookSearchResultDTO(List<BookDTO> items, String nextCursor, SearchFacetsDTO facets) {}
@@ -0,0 +1,25 @@
+package com.library.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum BookSort {
+    ID("id"),
+    PUBLISHED_DATE("publishedDate");
+
+    private final String parameter;
+
+    BookSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public static Optional<BookSort> fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.parameter.equals(parameter))
+                .findFirst();
+    }
+}
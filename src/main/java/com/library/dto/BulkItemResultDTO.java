@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record BulkItemResultDTO(int index, Integer id, BulkItemStatus status, String error) {}
@@ -0,0 +1,8 @@
+package com.library.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    FAILED
+}
@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record CacheStatsDTO(long size, long hits, long misses, double hitRate, long evictions) {}
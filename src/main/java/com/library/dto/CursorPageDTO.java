@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(List<T> items, String nextCursor) {}
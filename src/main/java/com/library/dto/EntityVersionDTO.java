@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.time.Instant;
+
+public record EntityVersionDTO(long version, Instant updatedAt) {}
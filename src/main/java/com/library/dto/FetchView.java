@@ -0,0 +1,30 @@
+package com.library.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * How much of an entity a read returns ({@code ?view=}): its own columns, those plus the ids of
+ * its associations, or those plus summaries of the associated entities.
+ */
+public enum FetchView {
+    SUMMARY("summary"),
+    WITH_IDS("withIds"),
+    FULL("full");
+
+    private final String parameter;
+
+    FetchView(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public static Optional<FetchView> fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(view -> view.parameter.equals(parameter))
+                .findFirst();
+    }
+}
@@ -0,0 +1,110 @@
+package com.library.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The properties of an entity a read returns, asked for with {@code ?fields=} or implied by the
+ * view. Repositories select only the columns of these properties and skip the id aggregations
+ * that are not among them. Names are kept in declaration order, so equal selections have equal
+ * {@link #key() keys} however they were written.
+ */
+public final class FieldSelection {
+    public static final FieldSelection BOOK =
+            new FieldSelection(List.of("id", "title", "publishedDate", "genre", "publisherId", "authorIds"));
+    public static final FieldSelection BOOK_SUMMARY = BOOK.without("authorIds");
+    public static final FieldSelection AUTHOR =
+            new FieldSelection(List.of("id", "name", "surname", "country", "bookIds"));
+    public static final FieldSelection AUTHOR_SUMMARY = AUTHOR.without("bookIds");
+    public static final FieldSelection PUBLISHER = new FieldSelection(List.of("id", "name", "bookIds"));
+    public static final FieldSelection PUBLISHER_SUMMARY = PUBLISHER.without("bookIds");
+
+    private final List<String> available;
+    private final Set<String> names;
+
+    private FieldSelection(List<String> available) {
+        this(available, new LinkedHashSet<>(available));
+    }
+
+    private FieldSelection(List<String> available, Set<String> names) {
+        this.available = available;
+        this.names = names;
+    }
+
+    /**
+     * Narrows this selection to a comma-separated list of its properties; empty if the list
+     * names none, or anything this selection does not have.
+     */
+    public Optional<FieldSelection> select(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            requested.add(field.trim());
+        }
+        requested.remove("");
+        if (requested.isEmpty() || !names.containsAll(requested)) {
+            return Optional.empty();
+        }
+        return Optional.of(retain(requested));
+    }
+
+    public FieldSelection with(String name) {
+        if (names.contains(name) || !available.contains(name)) {
+            return this;
+        }
+        Set<String> widened = new LinkedHashSet<>(names);
+        widened.add(name);
+        return retain(widened);
+    }
+
+    public FieldSelection without(String name) {
+        Set<String> narrowed = new LinkedHashSet<>(names);
+        narrowed.remove(name);
+        return retain(narrowed);
+    }
+
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+
+    /** Whether every property of the entity is selected. */
+    public boolean isComplete() {
+        return names.size() == available.size();
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    /** The selected names joined by dots, e.g. for a cache key or ETag. */
+    public String key() {
+        return String.join(".", names);
+    }
+
+    private FieldSelection retain(Set<String> selected) {
+        List<String> ordered = new ArrayList<>(available);
+        ordered.retainAll(selected);
+        return new FieldSelection(available, new LinkedHashSet<>(ordered));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FieldSelection that = (FieldSelection) o;
+        return available.equals(that.available) && names.equals(that.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(available, names);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldSelection{" + key() + "}";
+    }
+}
@@ -0,0 +1,179 @@
+package com.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable set of entity ids held as a sorted {@code int[]}: four bytes per id instead of an
+ * {@code Integer} box plus a hash node. Lookups are binary searches; ids are boxed only when
+ * read through the {@link java.util.Set} view. Jackson reads and writes it as a plain JSON array
+ * of numbers without boxing, in ascending order.
+ */
+@JsonSerialize(using = IdSet.Serializer.class)
+@JsonDeserialize(using = IdSet.Deserializer.class)
+public final class IdSet extends AbstractSet<Integer> {
+    public static final IdSet EMPTY = new IdSet(new int[0]);
+
+    private final int[] ids;
+
+    private IdSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    public static IdSet of(int... ids) {
+        return sortedDistinct(ids.clone(), ids.length);
+    }
+
+    public static <T> IdSet of(Collection<T> items, ToIntFunction<? super T> id) {
+        if (items == null || items.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[items.size()];
+        int count = 0;
+        for (T item : items) {
+            ids[count++] = id.applyAsInt(item);
+        }
+        return sortedDistinct(ids, count);
+    }
+
+    public static IdSet copyOf(Collection<Integer> ids) {
+        if (ids instanceof IdSet idSet) {
+            return idSet;
+        }
+        return of(ids, Integer::intValue);
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer id && contains(id.intValue());
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    public int[] toIntArray() {
+        return ids.clone();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ids.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (next == ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return ids[next++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IdSet other) {
+            return Arrays.equals(ids, other.ids);
+        }
+        return super.equals(o);
+    }
+
+    /** Same value as {@link java.util.Set#hashCode()}, the sum of the ids. */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int id : ids) {
+            hash += id;
+        }
+        return hash;
+    }
+
+    /** Sorts the first {@code count} ids in place and drops duplicates; the array is not copied. */
+    private static IdSet sortedDistinct(int[] ids, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(ids, 0, count);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return new IdSet(distinct == ids.length ? ids : Arrays.copyOf(ids, distinct));
+    }
+
+    static final class Serializer extends StdSerializer<IdSet> {
+        Serializer() {
+            super(IdSet.class);
+        }
+
+        @Override
+        public void serialize(IdSet value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeArray(value.ids, 0, value.ids.length);
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, IdSet value) {
+            return value.isEmpty();
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<IdSet> {
+        Deserializer() {
+            super(IdSet.class);
+        }
+
+        @Override
+        public IdSet deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return (IdSet) context.handleUnexpectedToken(IdSet.class, parser);
+            }
+            int[] ids = new int[16];
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_NUMBER_INT) {
+                    return (IdSet) context.handleUnexpectedToken(IdSet.class, token, parser,
+                            "Expected an integer id");
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count << 1);
+                }
+                ids[count++] = parser.getIntValue();
+            }
+            return sortedDistinct(ids, count);
+        }
+
+        @Override
+        public Object getEmptyValue(DeserializationContext context) {
+            return EMPTY;
+        }
+    }
+}
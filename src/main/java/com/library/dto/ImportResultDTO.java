@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.util.List;
+
+public record ImportResultDTO(List<ImportTableResultDTO> tables, long elapsedMillis) {}
@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.io.InputStream;
+
+public record ImportSourceDTO(ImportTable table, ImportFormat format, InputStream data) {}
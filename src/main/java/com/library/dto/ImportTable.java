@@ -0,0 +1,31 @@
+package com.library.dto;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Tables accepted by the catalog import, in the order they are merged so that
+ * foreign keys always point at rows that are already in place.
+ */
+public enum ImportTable {
+    PUBLISHERS("publishers"),
+    AUTHORS("authors"),
+    BOOKS("books"),
+    BOOK_AUTHOR("book_author");
+
+    private final String tableName;
+
+    ImportTable(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public static Optional<ImportTable> fromTableName(String tableName) {
+        return Arrays.stream(values())
+                .filter(table -> table.tableName.equals(tableName))
+                .findFirst();
+    }
+}
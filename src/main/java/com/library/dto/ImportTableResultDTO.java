@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record ImportTableResultDTO(String table, long staged, long merged) {}
@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.util.List;
+
+public record IndexAdvisorReportDTO(int statements, int unexplained, long minRows, List<SeqScanFindingDTO> seqScans) {}
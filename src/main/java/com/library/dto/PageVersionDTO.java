@@ -0,0 +1,5 @@
+package com.library.dto;
+
+import java.time.Instant;
+
+public record PageVersionDTO(long rows, long idSum, long versionSum, Instant lastModified) {}
@@ -0,0 +1,6 @@
+package com.library.dto;
+
+import java.util.Set;
+
+/** Books whose publisher changed, and the publishers that lost one of them. */
+public record PublisherBooksChangeDTO(Set<Integer> bookIds, Set<Integer> previousPublisherIds) {}
@@ -1,14 +1,23 @@
 package com.library.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
+@JsonFilter(PublisherDTO.FIELD_FILTER)
 public class PublisherDTO {
+    public static final String FIELD_FILTER = "publisherFields";
+
     private Integer id;
     private String name;
-    private Set<Integer> bookIds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IdSet bookIds;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<BookDTO> books;
 
-    public int getId() {
+    public Integer getId() {
         return id;
     }
 
@@ -16,11 +25,15 @@ public class PublisherDTO {
         return name;
     }
 
-    public Set<Integer> getBookIds() {
+    public IdSet getBookIds() {
         return bookIds;
     }
 
-    public void setId(int id) {
+    public List<BookDTO> getBooks() {
+        return books;
+    }
+
+    public void setId(Integer id) {
         this.id = id;
     }
 
@@ -28,21 +41,25 @@ public class PublisherDTO {
         this.name = name;
     }
 
-    public void setBookIds(Set<Integer> bookIds) {
+    public void setBookIds(IdSet bookIds) {
         this.bookIds = bookIds;
     }
 
+    public void setBooks(List<BookDTO> books) {
+        this.books = books;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PublisherDTO that = (PublisherDTO) o;
-        return Objects.equals(id, that.id) && Objects.equals(name, that.name) && Objects.equals(bookIds, that.bookIds);
+        return Objects.equals(id, that.id) && Objects.equals(name, that.name) && Objects.equals(bookIds, that.bookIds) && Objects.equals(books, that.books);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, bookIds);
+        return Objects.hash(id, name, bookIds, books);
     }
 
     @Override
@@ -51,6 +68,7 @@ public class PublisherDTO {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", bookIds=" + bookIds +
+                ", books=" + books +
                 '}';
     }
 }
@@ -0,0 +1,6 @@
+package com.library.dto;
+
+import java.util.Map;
+
+/** Facet counts of a search; {@code capped} means only the first {@code total} matches were counted. */
+public record SearchFacetsDTO(long total, boolean capped, Map<String, Long> genres, Map<Integer, Long> publishers) {}
@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record SeqScanDTO(String table, double planRows, String filter) {}
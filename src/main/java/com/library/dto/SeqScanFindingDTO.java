@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record SeqScanFindingDTO(String table, long tableRows, double planRows, String filter, String sql) {}
@@ -0,0 +1,3 @@
+package com.library.dto;
+
+public record SuggestionDTO(int id, String label) {}
@@ -0,0 +1,6 @@
+package com.library.dto;
+
+import java.util.List;
+
+public record SuggestionsDTO(List<SuggestionDTO> books, List<SuggestionDTO> authors,
+                             List<SuggestionDTO> publishers) {}
@@ -4,14 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.util.*;
 
 @Entity
+@NamedEntityGraph(name = Author.FULL_GRAPH, attributeNodes = @NamedAttributeNode("books"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.AUTHOR)
 @Table(name = "authors")
 public class Author {
+    /** Books, for {@code ?view=full}. */
+    public static final String FULL_GRAPH = "Author.full";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_id_seq", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Author name cannot be blank")
@@ -32,8 +41,16 @@ public class Author {
     private String country;
 
     @ManyToMany(mappedBy = "authors")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.AUTHOR_BOOKS)
     private Set<Book> books = new HashSet<>();
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Author() {}
 
     public Author(String name, String surname, String country) {
@@ -94,5 +111,23 @@ public class Author {
         book.getAuthors().remove(this);
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = Instant.now();
+    }
+
 
 }
@@ -3,14 +3,27 @@ package com.library.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 @Entity
+@NamedEntityGraph(name = Book.FULL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("publisher"),
+        @NamedAttributeNode("authors")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOOK)
 @Table(name = "books")
 public class Book {
+    /** Publisher and authors, for {@code ?view=full}. */
+    public static final String FULL_GRAPH = "Book.full";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_id_seq", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Title cannot be blank")
@@ -18,20 +31,23 @@ public class Book {
     @Column(nullable = false)
     private String title;
 
-    @NotBlank(message = "Published date cannot be blank")
-    @Column(name = "published_date", nullable = false)
-    private String publishedDate;
+    // Nullable as in the schema: imports may leave the date out, and date order skips such books
+    @Column(name = "published_date")
+    private LocalDate publishedDate;
 
     @NotBlank(message = "Genre cannot be blank")
     @Size(min = 2, max = 50, message = "Genre must be between 2 and 50 characters")
     @Column(nullable = false)
     private String genre;
 
-    @ManyToOne
-    @JoinColumn(name = "publisher_id", nullable = false)
+    // Nullable as in the schema: a book outlives its publisher (ON DELETE SET NULL) and can be
+    // dropped from a publisher's list. Lazy: the id comes from the row, the rest only when asked for
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "publisher_id")
     private Publisher publisher;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOOK_AUTHORS)
     @JoinTable(
             name = "book_author",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -39,9 +55,16 @@ public class Book {
     )
     private Set<Author> authors = new HashSet<>();
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Book() {}
 
-    public Book(String title, String publishedDate, String genre, Publisher publisher) {
+    public Book(String title, LocalDate publishedDate, String genre, Publisher publisher) {
         this.title = title;
         this.publishedDate = publishedDate;
         this.genre = genre;
@@ -64,11 +87,11 @@ public class Book {
         this.title = title;
     }
 
-    public String getPublishedDate() {
+    public LocalDate getPublishedDate() {
         return publishedDate;
     }
 
-    public void setPublishedDate(String publishedDate) {
+    public void setPublishedDate(LocalDate publishedDate) {
         this.publishedDate = publishedDate;
     }
 
@@ -106,6 +129,24 @@ public class Book {
         author.getBooks().remove(this);
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = Instant.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -115,12 +156,12 @@ public class Book {
                 Objects.equals(title, book.title) &&
                 Objects.equals(publishedDate, book.publishedDate) &&
                 Objects.equals(genre, book.genre) &&
-                Objects.equals(publisher, book.publisher);
+                Objects.equals(publisherId(), book.publisherId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, publishedDate, genre, publisher);
+        return Objects.hash(id, title, publishedDate, genre, publisherId());
     }
 
     @Override
@@ -130,7 +171,12 @@ public class Book {
                 ", title='" + title + '\'' +
                 ", publishedDate='" + publishedDate + '\'' +
                 ", genre='" + genre + '\'' +
-                ", publisher=" + publisher +
+                ", publisherId=" + publisherId() +
                 '}';
     }
+
+    // Reading the id of a lazy publisher does not initialize it
+    private Integer publisherId() {
+        return publisher == null ? null : publisher.getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.library.entity;
+
+import java.util.List;
+
+public final class CacheRegions {
+    public static final String BOOK = "library.book";
+    public static final String AUTHOR = "library.author";
+    public static final String PUBLISHER = "library.publisher";
+    public static final String BOOK_AUTHORS = "library.book.authors";
+    public static final String AUTHOR_BOOKS = "library.author.books";
+    public static final String PUBLISHER_BOOKS = "library.publisher.books";
+    public static final String LIST_QUERIES = "library.query.lists";
+
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> BOUNDED = List.of(
+            BOOK, AUTHOR, PUBLISHER, BOOK_AUTHORS, AUTHOR_BOOKS, PUBLISHER_BOOKS, LIST_QUERIES, QUERY_RESULTS);
+
+    private CacheRegions() {}
+}
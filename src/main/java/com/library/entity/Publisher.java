@@ -3,14 +3,23 @@ package com.library.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
 import java.util.*;
 
 @Entity
+@NamedEntityGraph(name = Publisher.FULL_GRAPH, attributeNodes = @NamedAttributeNode("books"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PUBLISHER)
 @Table(name = "publishers")
 public class Publisher {
+    /** Books, for {@code ?view=full}. */
+    public static final String FULL_GRAPH = "Publisher.full";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "publishers_seq")
+    @SequenceGenerator(name = "publishers_seq", sequenceName = "publishers_id_seq", allocationSize = 50)
     private Integer id;
 
     @NotBlank(message = "Publisher name cannot be blank")
@@ -18,9 +27,18 @@ public class Publisher {
     @Column(nullable = false, unique = true)
     private String name;
 
-    @OneToMany(mappedBy = "publisher", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Read-only view of the books' publisher_id; PublisherRepository.replaceBooks changes it in bulk
+    @OneToMany(mappedBy = "publisher")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PUBLISHER_BOOKS)
     private Set<Book> books = new HashSet<>();
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Publisher() {}
 
     public Publisher(String name) {
@@ -61,6 +79,24 @@ public class Publisher {
         book.setPublisher(null);
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void touch() {
+        updatedAt = Instant.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = Instant.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,11 @@
+package com.library.exception;
+
+public class CatalogImportException extends RuntimeException {
+    public CatalogImportException(String message) {
+        super(message);
+    }
+
+    public CatalogImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,30 +1,65 @@
 package com.library.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.sql.SQLException;
+import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(NumberFormatException.class)
-    public ResponseEntity<String> handleNumberFormatException(NumberFormatException e) {
-        return ResponseEntity.badRequest().body("{\"error\":\"Invalid ID format\"}");
+    public ResponseEntity<Map<String, String>> handleNumberFormatException(NumberFormatException e) {
+        return ResponseEntity.badRequest().body(error("Invalid ID format"));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.badRequest().body(error("Invalid value for parameter " + e.getName()));
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidPageRequestException(InvalidPageRequestException e) {
+        return ResponseEntity.badRequest().body(error(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidBulkRequestException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidBulkRequestException(InvalidBulkRequestException e) {
+        return ResponseEntity.badRequest().body(error(e.getMessage()));
+    }
+
+    @ExceptionHandler(CatalogImportException.class)
+    public ResponseEntity<Map<String, String>> handleCatalogImportException(CatalogImportException e) {
+        return ResponseEntity.badRequest().body(error(e.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error(e.getMessage()));
     }
 
     @ExceptionHandler(BookServiceException.class)
-    public ResponseEntity<String> handleBookServiceException(BookServiceException e) {
+    public ResponseEntity<Map<String, String>> handleBookServiceException(BookServiceException e) {
         if (e.getCause() instanceof SQLException) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"error\":\"Book not found\"}");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Book not found"));
         }
-        return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        return ResponseEntity.badRequest().body(error(e.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGeneralException(Exception e) {
-        return ResponseEntity.internalServerError().body("{\"error\":\"Internal server error\"}");
+    public ResponseEntity<Map<String, String>> handleGeneralException(Exception e) {
+        return ResponseEntity.internalServerError().body(error("Internal server error"));
+    }
+
+    /** Written by the message converters, which escape the message: it can quote request parameters. */
+    private static Map<String, String> error(String message) {
+        return Map.of("error", message == null ? "" : message);
     }
-}
\ No newline at end of file
+}
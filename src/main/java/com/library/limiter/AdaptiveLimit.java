@@ -0,0 +1,114 @@
+package com.library.limiter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit driven by call latency. A call counts as congested when it took longer
+ * than {@code tolerance} times the baseline latency of its operation (and at least
+ * {@code minCongestedNanos}), or when it failed waiting for a pooled connection; each congested
+ * call cuts the limit by {@code backoffRatio}. Other calls grow the limit by {@code 1 / limit},
+ * i.e. by one per limit's worth of calls, but only while at least half of the limit is in use.
+ * <p>
+ * Baselines are kept per operation, since the calls sharing a limit range from a lookup by id
+ * to an import: against a shared baseline, an operation that is slow by design would count as
+ * congested every time it ran. Each baseline is a moving average of the operation's uncongested
+ * latencies, so it does not drift upwards under overload.
+ */
+public class AdaptiveLimit {
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final long minCongestedNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Map<Object, Baseline> baselines = new HashMap<>();
+    private double limit;
+    private volatile int currentLimit;
+
+    public AdaptiveLimit(String name, int initialLimit, int minLimit, int maxLimit,
+                         double backoffRatio, double tolerance, long minCongestedNanos) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid " + name + " limits: initial " + initialLimit
+                    + ", min " + minLimit + ", max " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.minCongestedNanos = minCongestedNanos;
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+    }
+
+    /** Takes a slot if one is free; returns the number of calls in flight before this one, or -1. */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.incrementAndGet();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot taken by {@link #tryAcquire()} and feeds the call into the limit.
+     *
+     * @param operation what was called; the latency is judged against earlier calls of it
+     * @param inFlightAtStart value returned by {@link #tryAcquire()}
+     * @param overloaded whether the call failed because the connection pool was exhausted
+     */
+    public void release(Object operation, int inFlightAtStart, long latencyNanos, boolean overloaded) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            Baseline baseline = baselines.computeIfAbsent(operation, o -> new Baseline(latencyNanos));
+            boolean congested = overloaded
+                    || latencyNanos > Math.max(baseline.nanos * tolerance, minCongestedNanos);
+            if (congested) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                baseline.nanos += (latencyNanos - baseline.nanos) * BASELINE_SMOOTHING;
+                if ((inFlightAtStart + 1) * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private static final class Baseline {
+        double nanos;
+
+        Baseline(double nanos) {
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.library.limiter;
+
+import com.library.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Admits service calls against one of two {@link AdaptiveLimit}s: read-only transactions
+ * ({@code @Transactional(readOnly = true)}) against the read limit, everything else against the
+ * write limit, so that bulk writes cannot take the slots GET traffic needs. Calls over the limit
+ * fail immediately with {@link ServiceOverloadedException} instead of queueing for a pooled
+ * connection. Only the outermost service call on a thread takes a slot. Each service method is
+ * its own operation for the limit's latency baselines.
+ */
+public class ConcurrencyLimiter implements MethodInterceptor, MeterBinder {
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final AdaptiveLimit readLimit;
+    private final AdaptiveLimit writeLimit;
+    private final long retryAfterSeconds;
+    private final ConcurrentMap<Method, Boolean> readOnlyMethods = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(boolean enabled, AdaptiveLimit readLimit, AdaptiveLimit writeLimit,
+                              long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!enabled || ADMITTED.get() != null) {
+            return invocation.proceed();
+        }
+        Method method = targetMethod(invocation);
+        AdaptiveLimit limit = isReadOnly(method) ? readLimit : writeLimit;
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            throw new ServiceOverloadedException("Too many concurrent " + limit.getName() + " requests",
+                    retryAfterSeconds);
+        }
+        ADMITTED.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            overloaded = isPoolTimeout(e);
+            throw e;
+        } finally {
+            ADMITTED.remove();
+            limit.release(method, inFlight, System.nanoTime() - start, overloaded);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdaptiveLimit limit : List.of(readLimit, writeLimit)) {
+            Gauge.builder("library.limiter.limit", limit, AdaptiveLimit::getLimit)
+                    .description("Current concurrency limit")
+                    .tag("kind", limit.getName())
+                    .register(registry);
+            Gauge.builder("library.limiter.inflight", limit, AdaptiveLimit::getInFlight)
+                    .description("Admitted calls in flight")
+                    .tag("kind", limit.getName())
+                    .register(registry);
+            FunctionCounter.builder("library.limiter.rejected", limit, AdaptiveLimit::getRejected)
+                    .description("Calls rejected because the limit was reached")
+                    .tag("kind", limit.getName())
+                    .register(registry);
+        }
+    }
+
+    private static Method targetMethod(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        return AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+    }
+
+    private boolean isReadOnly(Method method) {
+        return readOnlyMethods.computeIfAbsent(method, m -> {
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(m, Transactional.class);
+            if (transactional == null) {
+                transactional = AnnotatedElementUtils.findMergedAnnotation(m.getDeclaringClass(), Transactional.class);
+            }
+            return transactional != null && transactional.readOnly();
+        });
+    }
+
+    private static boolean isPoolTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.library.limiter;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Matches the public methods of the application's {@code *ServiceImpl} classes, which own the
+ * transaction boundaries.
+ */
+public class ServiceLayerPointcut extends StaticMethodMatcherPointcut {
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        return userClass.getName().startsWith("com.library.")
+                && userClass.getSimpleName().endsWith("ServiceImpl")
+                && Modifier.isPublic(method.getModifiers())
+                && method.getDeclaringClass() != Object.class;
+    }
+}
@@ -1,6 +1,8 @@
 package com.library.mapper;
 
 import com.library.dto.AuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.IdSet;
 import com.library.entity.Author;
 import com.library.entity.Book;
 import org.mapstruct.Mapper;
@@ -8,26 +10,57 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface AuthorMapper {
     @Mapping(target = "bookIds", source = "books", qualifiedByName = "booksToIds")
+    @Mapping(target = "books", ignore = true)
     AuthorDTO toDto(Author author);
 
+    @Mapping(target = "bookIds", ignore = true)
+    @Mapping(target = "books", ignore = true)
+    AuthorDTO toSummaryDto(Author author);
+
+    /** Expects the books to be fetched already ({@link Author#FULL_GRAPH}). */
+    @Mapping(target = "bookIds", source = "books", qualifiedByName = "booksToIds")
+    @Mapping(target = "books", qualifiedByName = "bookSummaries")
+    AuthorDTO toFullDto(Author author);
+
     @Mapping(target = "books", ignore = true)
     Author toEntity(AuthorDTO authorDTO);
 
     @Mapping(target = "books", ignore = true)
     void updateEntity(AuthorDTO authorDTO, @MappingTarget Author author);
 
+    @Mapping(target = "bookIds", qualifiedByName = "freezeIds")
+    AuthorDTO snapshot(AuthorDTO authorDTO);
+
     @Named("booksToIds")
-    default Set<Integer> booksToIds(Set<Book> books) {
-        if (books == null) return Collections.emptySet();
+    default IdSet booksToIds(Set<Book> books) {
+        return IdSet.of(books, Book::getId);
+    }
+
+    @Named("bookSummaries")
+    default List<BookDTO> bookSummaries(Set<Book> books) {
         return books.stream()
-                .map(Book::getId)
-                .collect(Collectors.toSet());
+                .sorted(Comparator.comparing(Book::getId))
+                .map(this::toBookSummary)
+                .toList();
+    }
+
+    @Named("bookSummary")
+    @Mapping(source = "publisher.id", target = "publisherId")
+    @Mapping(target = "authorIds", ignore = true)
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "authors", ignore = true)
+    BookDTO toBookSummary(Book book);
+
+    /** {@link IdSet} is immutable, so a snapshot can share it. */
+    @Named("freezeIds")
+    default IdSet freezeIds(IdSet ids) {
+        return ids == null ? IdSet.EMPTY : ids;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.library.mapper;
 
+import com.library.dto.AuthorDTO;
 import com.library.dto.BookDTO;
+import com.library.dto.IdSet;
+import com.library.dto.PublisherDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
 import com.library.entity.Publisher;
@@ -9,6 +12,8 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -17,20 +22,53 @@ public interface BookMapper {
 
     @Mapping(source = "publisher.id", target = "publisherId")
     @Mapping(source = "authors", target = "authorIds", qualifiedByName = "mapAuthorsToAuthorIds")
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "authors", ignore = true)
     BookDTO toDTO(Book book);
 
+    @Mapping(source = "publisher.id", target = "publisherId")
+    @Mapping(target = "authorIds", ignore = true)
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "authors", ignore = true)
+    BookDTO toSummaryDTO(Book book);
+
+    /** Expects the publisher and authors to be fetched already ({@link Book#FULL_GRAPH}). */
+    @Mapping(source = "publisher.id", target = "publisherId")
+    @Mapping(source = "authors", target = "authorIds", qualifiedByName = "mapAuthorsToAuthorIds")
+    @Mapping(target = "publisher", qualifiedByName = "mapPublisherToSummary")
+    @Mapping(target = "authors", qualifiedByName = "mapAuthorsToSummaries")
+    BookDTO toFullDTO(Book book);
+
+    @Mapping(target = "authorIds", qualifiedByName = "freezeIds")
+    BookDTO snapshot(BookDTO bookDTO);
+
     @Mapping(target = "authors", source = "authorIds", qualifiedByName = "mapAuthorIdsToAuthors")
     @Mapping(target = "publisher", source = "publisherId", qualifiedByName = "mapPublisherIdToPublisher")
     Book toEntity(BookDTO bookDTO);
 
     @Named("mapAuthorsToAuthorIds")
-    default Set<Integer> mapAuthorsToAuthorIds(Set<Author> authors) {
-        if (authors == null) return Collections.emptySet();
+    default IdSet mapAuthorsToAuthorIds(Set<Author> authors) {
+        return IdSet.of(authors, Author::getId);
+    }
+
+    @Named("mapAuthorsToSummaries")
+    default List<AuthorDTO> mapAuthorsToSummaries(Set<Author> authors) {
         return authors.stream()
-                .map(Author::getId)
-                .collect(Collectors.toSet());
+                .sorted(Comparator.comparing(Author::getId))
+                .map(this::toAuthorSummary)
+                .toList();
     }
 
+    @Named("mapAuthorToSummary")
+    @Mapping(target = "bookIds", ignore = true)
+    @Mapping(target = "books", ignore = true)
+    AuthorDTO toAuthorSummary(Author author);
+
+    @Named("mapPublisherToSummary")
+    @Mapping(target = "bookIds", ignore = true)
+    @Mapping(target = "books", ignore = true)
+    PublisherDTO toPublisherSummary(Publisher publisher);
+
     @Named("mapAuthorIdsToAuthors")
     default Set<Author> mapAuthorIdsToAuthors(Set<Integer> authorIds) {
         if (authorIds == null) return Collections.emptySet();
@@ -50,4 +88,10 @@ public interface BookMapper {
         publisher.setId(publisherId);
         return publisher;
     }
+
+    /** {@link IdSet} is immutable, so a snapshot can share it. */
+    @Named("freezeIds")
+    default IdSet freezeIds(IdSet ids) {
+        return ids == null ? IdSet.EMPTY : ids;
+    }
 }
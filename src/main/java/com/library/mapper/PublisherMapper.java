@@ -1,5 +1,7 @@
 package com.library.mapper;
 
+import com.library.dto.BookDTO;
+import com.library.dto.IdSet;
 import com.library.dto.PublisherDTO;
 import com.library.entity.Book;
 import com.library.entity.Publisher;
@@ -7,40 +9,55 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 
-import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface PublisherMapper {
 
     @Mapping(source = "books", target = "bookIds", qualifiedByName = "mapBooksToBookIds")
+    @Mapping(target = "books", ignore = true)
     PublisherDTO toDTO(Publisher publisher);
 
-    @Mapping(source = "bookIds", target = "books", qualifiedByName = "mapBookIdsToBooks")
+    @Mapping(target = "bookIds", ignore = true)
+    @Mapping(target = "books", ignore = true)
+    PublisherDTO toSummaryDTO(Publisher publisher);
+
+    /** Expects the books to be fetched already ({@link Publisher#FULL_GRAPH}). */
+    @Mapping(source = "books", target = "bookIds", qualifiedByName = "mapBooksToBookIds")
+    @Mapping(target = "books", qualifiedByName = "mapBooksToSummaries")
+    PublisherDTO toFullDTO(Publisher publisher);
+
+    @Mapping(target = "books", ignore = true)
     Publisher toEntity(PublisherDTO publisherDTO);
 
+    @Mapping(target = "bookIds", qualifiedByName = "freezeIds")
+    PublisherDTO snapshot(PublisherDTO publisherDTO);
+
     @Named("mapBooksToBookIds")
-    default Set<Integer> mapBooksToBookIds(Set<Book> books) {
-        if (books == null) {
-            return Collections.emptySet();
-        }
+    default IdSet mapBooksToBookIds(Set<Book> books) {
+        return IdSet.of(books, Book::getId);
+    }
+
+    @Named("mapBooksToSummaries")
+    default List<BookDTO> mapBooksToSummaries(Set<Book> books) {
         return books.stream()
-                .map(Book::getId)
-                .collect(Collectors.toSet());
+                .sorted(Comparator.comparing(Book::getId))
+                .map(this::toBookSummary)
+                .toList();
     }
 
-    @Named("mapBookIdsToBooks")
-    default Set<Book> mapBookIdsToBooks(Set<Integer> bookIds) {
-        if (bookIds == null) {
-            return Collections.emptySet();
-        }
-        return bookIds.stream()
-                .map(id -> {
-                    Book book = new Book();
-                    book.setId(id);
-                    return book;
-                })
-                .collect(Collectors.toSet());
+    @Named("bookSummary")
+    @Mapping(source = "publisher.id", target = "publisherId")
+    @Mapping(target = "authorIds", ignore = true)
+    @Mapping(target = "publisher", ignore = true)
+    @Mapping(target = "authors", ignore = true)
+    BookDTO toBookSummary(Book book);
+
+    /** {@link IdSet} is immutable, so a snapshot can share it. */
+    @Named("freezeIds")
+    default IdSet freezeIds(IdSet ids) {
+        return ids == null ? IdSet.EMPTY : ids;
     }
-}
\ No newline at end of file
+}
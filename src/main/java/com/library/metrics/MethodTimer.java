@@ -0,0 +1,63 @@
+package com.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records every intercepted call in the {@code library.method} timer, tagged with the layer,
+ * class, method and the simple name of the exception thrown, if any. Timers are resolved once
+ * per method and outcome rather than looked up in the registry on every call.
+ */
+public class MethodTimer implements MethodInterceptor {
+    public static final String METRIC_NAME = "library.method";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimer(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? ClassUtils.getUserClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            timers.computeIfAbsent(new TimerKey(targetClass, invocation.getMethod(), exception), this::register)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                .tag("layer", String.valueOf(TimedLayersPointcut.layerOf(key.targetClass())))
+                .tag("class", key.targetClass().getSimpleName())
+                .tag("method", key.method().getName())
+                .tag("exception", key.exception())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry.get());
+    }
+
+    private record TimerKey(Class<?> targetClass, Method method, String exception) {}
+}
@@ -0,0 +1,40 @@
+package com.library.metrics;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Matches the public methods of the application's controllers, {@code *ServiceImpl} and
+ * {@code *RepositoryImpl} classes.
+ */
+public class TimedLayersPointcut extends StaticMethodMatcherPointcut {
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return layerOf(targetClass) != null
+                && Modifier.isPublic(method.getModifiers())
+                && method.getDeclaringClass() != Object.class;
+    }
+
+    static String layerOf(Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        if (!userClass.getName().startsWith("com.library.")) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Controller.class)) {
+            return "controller";
+        }
+        if (userClass.getSimpleName().endsWith("ServiceImpl")) {
+            return "service";
+        }
+        if (userClass.getSimpleName().endsWith("RepositoryImpl")) {
+            return "repository";
+        }
+        return null;
+    }
+}
@@ -1,16 +1,29 @@
 package com.library.repository;
 
+import com.library.dto.AuthorDTO;
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PageVersionDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
 
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 
 public interface AuthorRepository {
     Optional<Author> findById(int id);
+    Optional<Author> findFullById(int id);
+    Optional<AuthorDTO> findDTOById(int id, FieldSelection fields);
+    Optional<EntityVersionDTO> findVersionById(int id);
+    PageVersionDTO findPageVersion(int afterId, int limit);
+    List<Author> findAllByIds(Collection<Integer> ids);
     List<Author> findAll();
+    List<Author> findPage(int afterId, int limit);
+    List<AuthorDTO> findDTOPage(int afterId, int limit, FieldSelection fields);
     Author save(Author author);
     void delete(int id);
     Set<Book> findBooksByAuthorId(int authorId);
     Map<Integer, Set<Book>> findBooksForAuthors(Collection<Integer> authorIds);
+    void forEachName(int fetchSize, ObjIntConsumer<String> consumer);
 
 }
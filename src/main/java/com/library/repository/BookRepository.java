@@ -1,17 +1,45 @@
 package com.library.repository;
 
+import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchHitDTO;
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.IdSet;
+import com.library.dto.PageVersionDTO;
+import com.library.dto.SearchFacetsDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
+import com.library.entity.Publisher;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 public interface BookRepository {
     Optional<Book> findById(int id);
+    Optional<Book> findFullById(int id);
+    Optional<BookDTO> findDTOById(int id, FieldSelection fields);
+    Optional<EntityVersionDTO> findVersionById(int id);
+    PageVersionDTO findPageVersion(BookListCriteriaDTO criteria, LocalDate afterDate, int afterId, int limit);
     List<Book> findAll();
+    List<Book> findPage(int afterId, int limit);
+    List<BookDTO> findDTOPage(BookListCriteriaDTO criteria, LocalDate afterDate, int afterId, int limit,
+                             FieldSelection fields);
+    List<BookSearchHitDTO> search(BookSearchCriteriaDTO criteria, int maxMatches, Float afterRank, int afterId, int limit,
+                                  FieldSelection fields);
+    SearchFacetsDTO findSearchFacets(BookSearchCriteriaDTO criteria, int maxMatches, int facetLimit);
     Book save(Book book);
+    Book save(Book book, Set<Author> previousAuthors, Publisher previousPublisher);
     void delete(int id);
     Set<Author> findAuthorsByBookId(int bookId);
     Map<Integer, Set<Author>> findAuthorsForBooks(Collection<Integer> bookIds);
     Set<Book> findBooksByIds(Set<Integer> bookIds);
+    Set<Integer> findMissingIds(Collection<Integer> bookIds);
+    Map<Integer, IdSet> findAuthorIdsForBooks(Collection<Integer> bookIds);
+    void forEachChunk(int chunkSize, Consumer<List<Book>> chunkConsumer);
+    void forEachTitle(int fetchSize, ObjIntConsumer<String> consumer);
 
 }
@@ -0,0 +1,13 @@
+package com.library.repository;
+
+import com.library.dto.ImportSourceDTO;
+import com.library.dto.ImportTable;
+
+public interface CatalogImportRepository {
+    void createStagingTables();
+    long stage(ImportSourceDTO source);
+    long countStaged(ImportTable table);
+    long merge(ImportTable table);
+    void syncSequences();
+    void evictSecondLevelCache();
+}
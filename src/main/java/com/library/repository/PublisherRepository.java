@@ -1,15 +1,29 @@
 package com.library.repository;
 
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PageVersionDTO;
+import com.library.dto.PublisherBooksChangeDTO;
+import com.library.dto.PublisherDTO;
 import com.library.entity.Book;
 import com.library.entity.Publisher;
 
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 
 public interface PublisherRepository {
     Optional<Publisher> findById(int id);
+    Optional<Publisher> findFullById(int id);
+    Optional<PublisherDTO> findDTOById(int id, FieldSelection fields);
+    Optional<EntityVersionDTO> findVersionById(int id);
+    PageVersionDTO findPageVersion(int afterId, int limit);
     Set<Publisher> findAll();
+    List<Publisher> findAllByIds(Collection<Integer> ids);
+    List<PublisherDTO> findDTOPage(int afterId, int limit, FieldSelection fields);
     Publisher save(Publisher publisher);
     void delete(int id);
     Set<Book> findBooksByPublisherId(int publisherId);
     Map<Integer, Set<Book>> findBooksForPublishers(Collection<Integer> publisherIds);
+    PublisherBooksChangeDTO replaceBooks(int publisherId, Collection<Integer> bookIds);
+    void forEachName(int fetchSize, ObjIntConsumer<String> consumer);
 }
@@ -0,0 +1,12 @@
+package com.library.repository;
+
+import com.library.dto.SeqScanDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface QueryPlanRepository {
+    Map<String, Long> findTableRowEstimates();
+    Optional<List<SeqScanDTO>> findSeqScans(String sql);
+}
@@ -1,16 +1,27 @@
 package com.library.repository.impl;
 
 import com.library.dto.AuthorBookDTO;
+import com.library.dto.AuthorDTO;
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PageVersionDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
+import com.library.entity.CacheRegions;
 import com.library.repository.AuthorRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -21,22 +32,81 @@ public class AuthorRepositoryImpl implements AuthorRepository {
 
     @Override
     public Optional<Author> findById(int id) {
-        Author author = entityManager.createQuery(
-                        "SELECT a FROM Author a LEFT JOIN FETCH a.books WHERE a.id = :id", Author.class)
+        Author author = entityManager.find(Author.class, id);
+        return Optional.ofNullable(author);
+    }
+
+    @Override
+    public Optional<Author> findFullById(int id) {
+        return entityManager.createQuery("SELECT a FROM Author a WHERE a.id = :id", Author.class)
                 .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Author.FULL_GRAPH))
                 .getResultStream()
-                .findFirst()
-                .orElse(null);
-        return Optional.ofNullable(author);
-        }
+                .findFirst();
+    }
+
+    @Override
+    public Optional<AuthorDTO> findDTOById(int id, FieldSelection fields) {
+        return AggregatedIdQueries.findAuthor(entityManager, id, fields);
+    }
+
+    @Override
+    public Optional<EntityVersionDTO> findVersionById(int id) {
+        return VersionQueries.findVersionById(entityManager, "Author", id);
+    }
+
+    @Override
+    public PageVersionDTO findPageVersion(int afterId, int limit) {
+        return VersionQueries.findPageVersion(entityManager, "authors", afterId, limit);
+    }
+
+    @Override
+    public List<Author> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        TypedQuery<Author> query = entityManager.createQuery(
+                "SELECT a FROM Author a WHERE a.id IN :ids", Author.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
 
     @Override
     public List<Author> findAll() {
         TypedQuery<Author> query = entityManager.createQuery(
                 "SELECT a FROM Author a LEFT JOIN FETCH a.books", Author.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.LIST_QUERIES);
         return query.getResultList().stream().distinct().toList();
     }
 
+    /**
+     * The entity page that {@link #findDTOPage} replaced: a cacheable id query, then the entities
+     * with their associations fetch-joined. No endpoint uses it; it is kept as the old path the
+     * repository benchmark compares the DTO page against.
+     */
+    @Override
+    public List<Author> findPage(int afterId, int limit) {
+        List<Integer> ids = entityManager.createQuery(
+                        "SELECT a.id FROM Author a WHERE a.id > :afterId ORDER BY a.id", Integer.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.LIST_QUERIES)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        TypedQuery<Author> query = entityManager.createQuery(
+                "SELECT DISTINCT a FROM Author a LEFT JOIN FETCH a.books WHERE a.id IN :ids ORDER BY a.id",
+                Author.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<AuthorDTO> findDTOPage(int afterId, int limit, FieldSelection fields) {
+        return AggregatedIdQueries.findAuthorPage(entityManager, afterId, limit, fields);
+    }
+
     @Override
     @Transactional
     public Author save(Author author) {
@@ -91,4 +161,18 @@ public class AuthorRepositoryImpl implements AuthorRepository {
                                 Collectors.toSet()
                         )));
     }
+
+    @Override
+    public void forEachName(int fetchSize, ObjIntConsumer<String> consumer) {
+        try (ScrollableResults<Object[]> results = entityManager.unwrap(Session.class).createSelectionQuery(
+                        "SELECT a.id, concat(a.name, ' ', a.surname) FROM Author a ORDER BY a.id", Object[].class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Object[] row = results.get();
+                consumer.accept((String) row[1], (Integer) row[0]);
+            }
+        }
+    }
 }
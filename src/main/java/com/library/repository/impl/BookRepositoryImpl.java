@@ -1,16 +1,39 @@
 package com.library.repository.impl;
 
 import com.library.dto.BookAuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchHitDTO;
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.IdSet;
+import com.library.dto.PageVersionDTO;
+import com.library.dto.SearchFacetsDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
+import com.library.entity.Publisher;
+import com.library.entity.CacheRegions;
 import com.library.repository.BookRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -25,17 +48,97 @@ public class BookRepositoryImpl implements BookRepository {
         return Optional.ofNullable(book);
     }
 
+    @Override
+    public Optional<Book> findFullById(int id) {
+        return entityManager.createQuery("SELECT b FROM Book b WHERE b.id = :id", Book.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Book.FULL_GRAPH))
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<BookDTO> findDTOById(int id, FieldSelection fields) {
+        return AggregatedIdQueries.findBook(entityManager, id, fields);
+    }
+
+    @Override
+    public Optional<EntityVersionDTO> findVersionById(int id) {
+        return VersionQueries.findVersionById(entityManager, "Book", id);
+    }
+
+    @Override
+    public PageVersionDTO findPageVersion(BookListCriteriaDTO criteria, LocalDate afterDate, int afterId, int limit) {
+        return VersionQueries.findBookPageVersion(entityManager, criteria, afterDate, afterId, limit);
+    }
+
     @Override
     public List<Book> findAll() {
         TypedQuery<Book> query = entityManager.createQuery(
                 "SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors LEFT JOIN FETCH b.publisher",
                 Book.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.LIST_QUERIES);
         return query.getResultList();
     }
 
+    /**
+     * The entity page that {@link #findDTOPage} replaced: a cacheable id query, then the entities
+     * with their associations fetch-joined. No endpoint uses it; it is kept as the old path the
+     * repository benchmark compares the DTO page against.
+     */
+    @Override
+    public List<Book> findPage(int afterId, int limit) {
+        List<Integer> ids = entityManager.createQuery(
+                        "SELECT b.id FROM Book b WHERE b.id > :afterId ORDER BY b.id", Integer.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.LIST_QUERIES)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        TypedQuery<Book> query = entityManager.createQuery("""
+            SELECT DISTINCT b FROM Book b
+            LEFT JOIN FETCH b.authors
+            LEFT JOIN FETCH b.publisher
+            WHERE b.id IN :ids
+            ORDER BY b.id
+            """, Book.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<BookDTO> findDTOPage(BookListCriteriaDTO criteria, LocalDate afterDate, int afterId, int limit,
+                                     FieldSelection fields) {
+        return AggregatedIdQueries.findBookPage(entityManager, criteria, afterDate, afterId, limit, fields);
+    }
+
+    @Override
+    public List<BookSearchHitDTO> search(BookSearchCriteriaDTO criteria, int maxMatches,
+                                         Float afterRank, int afterId, int limit, FieldSelection fields) {
+        return BookSearchQueries.search(entityManager, criteria, maxMatches, afterRank, afterId, limit, fields);
+    }
+
+    @Override
+    public SearchFacetsDTO findSearchFacets(BookSearchCriteriaDTO criteria, int maxMatches, int facetLimit) {
+        return BookSearchQueries.facets(entityManager, criteria, maxMatches, facetLimit);
+    }
+
     @Override
     @Transactional
     public Book save(Book book) {
+        return save(book, Set.of(), null);
+    }
+
+    @Override
+    @Transactional
+    public Book save(Book book, Set<Author> previousAuthors, Publisher previousPublisher) {
+        evictOwnerCollections(book.getAuthors(), book.getPublisher());
+        evictOwnerCollections(previousAuthors, previousPublisher);
         if (book.getId() == null) {
             entityManager.persist(book);
             return book;
@@ -49,11 +152,23 @@ public class BookRepositoryImpl implements BookRepository {
     public void delete(int id) {
         Book book = entityManager.find(Book.class, id);
         if (book != null) {
-            book.getAuthors().forEach(author -> author.getBooks().remove(book));
+            evictOwnerCollections(book.getAuthors(), book.getPublisher());
+            book.getAuthors().stream()
+                    .filter(author -> Hibernate.isInitialized(author.getBooks()))
+                    .forEach(author -> author.getBooks().remove(book));
             entityManager.remove(book);
         }
     }
 
+    private void evictOwnerCollections(Collection<Author> authors, Publisher publisher) {
+        SecondLevelCache.evictCollections(entityManager, SecondLevelCache.AUTHOR_BOOKS,
+                authors.stream().map(Author::getId).toList());
+        if (publisher != null) {
+            SecondLevelCache.evictCollections(entityManager, SecondLevelCache.PUBLISHER_BOOKS,
+                    Collections.singletonList(publisher.getId()));
+        }
+    }
+
     @Override
     public Set<Author> findAuthorsByBookId(int bookId) {
         TypedQuery<Author> query = entityManager.createQuery("""
@@ -95,10 +210,100 @@ public class BookRepositoryImpl implements BookRepository {
         }
 
         TypedQuery<Book> query = entityManager.createQuery(
-                "SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors WHERE b.id IN :bookIds",
+                "SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors LEFT JOIN FETCH b.publisher WHERE b.id IN :bookIds",
                 Book.class);
         query.setParameter("bookIds", bookIds);
 
         return new HashSet<>(query.getResultList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<Integer> findMissingIds(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        String sql = AggregatedIdQueries.inspect(entityManager, """
+                SELECT requested.id FROM unnest(?) AS requested(id)
+                WHERE NOT EXISTS (SELECT 1 FROM books b WHERE b.id = requested.id)""");
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Array ids = connection.createArrayOf("integer", bookIds.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setArray(1, ids);
+                Set<Integer> missing = new HashSet<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        missing.add(resultSet.getInt(1));
+                    }
+                }
+                return missing;
+            } finally {
+                ids.free();
+            }
+        });
+    }
+
+    @Override
+    public Map<Integer, IdSet> findAuthorIdsForBooks(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery("""
+            SELECT b.id, a.id FROM Book b
+            JOIN b.authors a
+            WHERE b.id IN :bookIds
+            """, Object[].class);
+        query.setParameter("bookIds", bookIds);
+
+        return query.getResultList().stream()
+                .collect(Collectors.groupingBy(
+                        row -> (Integer) row[0],
+                        Collectors.collectingAndThen(
+                                Collectors.toList(),
+                                rows -> IdSet.of(rows, row -> (Integer) row[1])
+                        )));
+    }
+
+    /**
+     * Walks the whole catalog over a server-side cursor and hands it out in chunks of
+     * {@code chunkSize} books. The persistence context is cleared after every chunk, so
+     * memory stays flat regardless of table size. Must run inside a transaction, otherwise
+     * the PostgreSQL driver ignores the fetch size and buffers the full result.
+     */
+    @Override
+    public void forEachChunk(int chunkSize, Consumer<List<Book>> chunkConsumer) {
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Book> results = session.createSelectionQuery(
+                        "SELECT b FROM Book b LEFT JOIN FETCH b.publisher ORDER BY b.id", Book.class)
+                .setFetchSize(chunkSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            List<Book> chunk = new ArrayList<>(chunkSize);
+            while (results.next()) {
+                chunk.add(results.get());
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        }
+    }
+
+    @Override
+    public void forEachTitle(int fetchSize, ObjIntConsumer<String> consumer) {
+        try (ScrollableResults<Object[]> results = entityManager.unwrap(Session.class).createSelectionQuery(
+                        "SELECT b.id, b.title FROM Book b ORDER BY b.id", Object[].class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Object[] row = results.get();
+                consumer.accept((String) row[1], (Integer) row[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.library.repository.impl;
+
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchHitDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.SearchFacetsDTO;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text search over {@code books.search_vector} (title and author names, maintained by
+ * triggers, see V7) combined with exact-match filters. Hits are ranked with {@code ts_rank} and
+ * paged by (rank, id) keyset; without a text query every match ranks 0 and pages go by id.
+ * The GIN index finds all matches cheaply, but ranking and counting them means reading every
+ * matching row, so both stop after a configurable number of matches. The capped set is always
+ * the matches with the lowest ids, so repeated requests and successive pages see the same set;
+ * the ranking is only exact when the cap is not reached.
+ */
+final class BookSearchQueries {
+    private static final String TEXT_QUERY = "WITH q AS (SELECT websearch_to_tsquery('english', ?) AS query)\n";
+
+    private BookSearchQueries() {}
+
+    /**
+     * With a text query, only the {@code maxMatches} matches with the lowest ids are ranked, which
+     * bounds the work for terms that match a large share of the catalog: a better match beyond the
+     * cap is not returned. Without one, pages follow the primary key and nothing is capped.
+     *
+     * @param afterRank rank of the last hit of the previous page, or null for the first page
+     * @param fields    the book columns to read; unselected ones come back null
+     */
+    static List<BookSearchHitDTO> search(EntityManager entityManager, BookSearchCriteriaDTO criteria, int maxMatches,
+                                         Float afterRank, int afterId, int limit, FieldSelection fields) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(textQuery(criteria, parameters)).append("""
+                SELECT %s, hits.rank
+                FROM (SELECT m.id, m.title, m.published_date, m.genre, m.publisher_id, m.rank
+                      FROM (SELECT b.id, b.title, b.published_date, b.genre, b.publisher_id, %s AS rank
+                            FROM %s
+                            WHERE %s
+                """.formatted(AggregatedIdQueries.bookColumns("hits", fields),
+                hasText(criteria) ? "ts_rank(b.search_vector, q.query)" : "0::real",
+                from(criteria), filters(criteria, parameters)));
+        if (hasText(criteria)) {
+            sql.append("                            ORDER BY b.id\n");
+            sql.append("                            LIMIT ?\n");
+            parameters.add(maxMatches);
+        }
+        sql.append("                           ) m\n");
+        if (afterRank != null) {
+            sql.append("      WHERE m.rank < ? OR (m.rank = ? AND m.id > ?)\n");
+            parameters.add(afterRank);
+            parameters.add(afterRank);
+            parameters.add(afterId);
+        }
+        sql.append("""
+                      ORDER BY m.rank DESC, m.id
+                      LIMIT ?) hits
+                ORDER BY hits.rank DESC, hits.id
+                """);
+        parameters.add(limit);
+
+        return query(entityManager, sql.toString(), parameters, resultSet -> {
+            List<BookSearchHitDTO> hits = new ArrayList<>(limit);
+            while (resultSet.next()) {
+                hits.add(new BookSearchHitDTO(AggregatedIdQueries.book(resultSet), resultSet.getFloat(7)));
+            }
+            return hits;
+        });
+    }
+
+    /**
+     * Counts the {@code maxMatches} matches with the lowest ids, grouped by genre and by
+     * publisher; each facet keeps its {@code facetLimit} largest values. When the cap is reached
+     * the counts are a sample and the total a lower bound. Books without a genre or publisher
+     * only count towards the total.
+     */
+    static SearchFacetsDTO facets(EntityManager entityManager, BookSearchCriteriaDTO criteria, int maxMatches,
+                                  int facetLimit) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = textQuery(criteria, parameters) + """
+                SELECT GROUPING(m.genre, m.publisher_id), m.genre, m.publisher_id, count(*)
+                FROM (SELECT b.genre, b.publisher_id
+                      FROM %s
+                      WHERE %s
+                      ORDER BY b.id
+                      LIMIT ?) m
+                GROUP BY GROUPING SETS ((m.genre), (m.publisher_id), ())
+                ORDER BY count(*) DESC
+                """.formatted(from(criteria), filters(criteria, parameters));
+        parameters.add(maxMatches);
+
+        return query(entityManager, sql, parameters, resultSet -> {
+            long total = 0;
+            Map<String, Long> genres = new LinkedHashMap<>();
+            Map<Integer, Long> publishers = new LinkedHashMap<>();
+            while (resultSet.next()) {
+                long count = resultSet.getLong(4);
+                switch (resultSet.getInt(1)) {
+                    case 1 -> {
+                        String genre = resultSet.getString(2);
+                        if (genre != null && genres.size() < facetLimit) genres.put(genre, count);
+                    }
+                    case 2 -> {
+                        Integer publisherId = resultSet.getObject(3, Integer.class);
+                        if (publisherId != null && publishers.size() < facetLimit) publishers.put(publisherId, count);
+                    }
+                    default -> total = count;
+                }
+            }
+            return new SearchFacetsDTO(total, total >= maxMatches, genres, publishers);
+        });
+    }
+
+    private static boolean hasText(BookSearchCriteriaDTO criteria) {
+        return criteria.query() != null && !criteria.query().isBlank();
+    }
+
+    private static String textQuery(BookSearchCriteriaDTO criteria, List<Object> parameters) {
+        if (!hasText(criteria)) {
+            return "";
+        }
+        parameters.add(criteria.query());
+        return TEXT_QUERY;
+    }
+
+    private static String from(BookSearchCriteriaDTO criteria) {
+        return hasText(criteria) ? "books b, q" : "books b";
+    }
+
+    private static String filters(BookSearchCriteriaDTO criteria, List<Object> parameters) {
+        List<String> filters = new ArrayList<>();
+        if (hasText(criteria)) {
+            filters.add("b.search_vector @@ q.query");
+        }
+        if (criteria.genre() != null) {
+            filters.add("b.genre = ?");
+            parameters.add(criteria.genre());
+        }
+        if (criteria.publisherId() != null) {
+            filters.add("b.publisher_id = ?");
+            parameters.add(criteria.publisherId());
+        }
+        if (criteria.authorId() != null) {
+            filters.add("EXISTS (SELECT 1 FROM book_author ba WHERE ba.book_id = b.id AND ba.author_id = ?)");
+            parameters.add(criteria.authorId());
+        }
+        if (criteria.from() != null) {
+            filters.add("b.published_date >= ?");
+            parameters.add(criteria.from());
+        }
+        if (criteria.to() != null) {
+            filters.add("b.published_date <= ?");
+            parameters.add(criteria.to());
+        }
+        return filters.isEmpty() ? "TRUE" : String.join("\n        AND ", filters);
+    }
+
+    private static <T> T query(EntityManager entityManager, String sql, List<Object> parameters,
+                               ResultReader<T> reader) {
+        String inspected = AggregatedIdQueries.inspect(entityManager, sql);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(inspected)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return reader.read(resultSet);
+                }
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ResultReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+}
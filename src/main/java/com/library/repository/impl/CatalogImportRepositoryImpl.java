@@ -0,0 +1,285 @@
+package com.library.repository.impl;
+
+import com.library.dto.ImportFormat;
+import com.library.dto.ImportSourceDTO;
+import com.library.dto.ImportTable;
+import com.library.exception.CatalogImportException;
+import com.library.repository.CatalogImportRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Loads the catalog with plain JDBC on the connection of the surrounding JPA transaction.
+ * Input is streamed with {@code COPY FROM STDIN} into temporary staging tables that are
+ * dropped on commit, then each live table is merged with a single {@code INSERT ... SELECT
+ * ... ON CONFLICT} keyed by the source ids. Nothing goes through the persistence context.
+ * <p>
+ * NDJSON lines are copied whole into a {@code jsonb} column by running COPY in CSV mode with
+ * quote and delimiter bytes that cannot occur in JSON text, and projected from there. The
+ * field names are those of the API DTOs, so the output of {@code GET /books/export} can be
+ * imported as is; its {@code authorIds} become {@code book_author} rows and replace the links
+ * of the book, while CSV {@code book_author} rows only add links.
+ * <p>
+ * Errors in the input (malformed rows, values of the wrong type or too long) surface as
+ * {@link CatalogImportException}; any other database failure is left to propagate.
+ */
+@Repository
+public class CatalogImportRepositoryImpl implements CatalogImportRepository {
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private static final String CREATE_STAGING_TABLES = """
+            CREATE TEMP TABLE stage_raw (seq BIGSERIAL, doc JSONB) ON COMMIT DROP;
+            CREATE TEMP TABLE stage_publishers (seq BIGSERIAL, id INTEGER, name VARCHAR(255)) ON COMMIT DROP;
+            CREATE TEMP TABLE stage_authors (seq BIGSERIAL, id INTEGER, name VARCHAR(100), surname VARCHAR(100),
+                                             country VARCHAR(50)) ON COMMIT DROP;
+            CREATE TEMP TABLE stage_books (seq BIGSERIAL, id INTEGER, title VARCHAR(255), published_date DATE,
+                                           genre VARCHAR(100), publisher_id INTEGER) ON COMMIT DROP;
+            CREATE TEMP TABLE stage_book_author (book_id INTEGER, author_id INTEGER) ON COMMIT DROP;
+            CREATE TEMP TABLE stage_linked_books (book_id INTEGER) ON COMMIT DROP;
+            """;
+
+    private static final String COPY_NDJSON =
+            "COPY stage_raw (doc) FROM STDIN WITH (FORMAT csv, QUOTE e'\\x01', DELIMITER e'\\x02')";
+
+    private static final Map<ImportTable, String> CSV_COLUMNS = Map.of(
+            ImportTable.PUBLISHERS, "id, name",
+            ImportTable.AUTHORS, "id, name, surname, country",
+            ImportTable.BOOKS, "id, title, published_date, genre, publisher_id",
+            ImportTable.BOOK_AUTHOR, "book_id, author_id");
+
+    private static final Map<ImportTable, String> PROJECT_NDJSON = Map.of(
+            ImportTable.PUBLISHERS, """
+                    INSERT INTO stage_publishers (id, name)
+                    SELECT (doc->>'id')::int, doc->>'name'
+                    FROM stage_raw WHERE doc IS NOT NULL ORDER BY seq
+                    """,
+            ImportTable.AUTHORS, """
+                    INSERT INTO stage_authors (id, name, surname, country)
+                    SELECT (doc->>'id')::int, doc->>'name', doc->>'surname', doc->>'country'
+                    FROM stage_raw WHERE doc IS NOT NULL ORDER BY seq
+                    """,
+            ImportTable.BOOKS, """
+                    INSERT INTO stage_books (id, title, published_date, genre, publisher_id)
+                    SELECT (doc->>'id')::int, doc->>'title', (doc->>'publishedDate')::date, doc->>'genre',
+                           (doc->>'publisherId')::int
+                    FROM stage_raw WHERE doc IS NOT NULL ORDER BY seq;
+                    INSERT INTO stage_book_author (book_id, author_id)
+                    SELECT (doc->>'id')::int, author_id::int
+                    FROM stage_raw, jsonb_array_elements_text(doc->'authorIds') AS author_id
+                    WHERE jsonb_typeof(doc->'authorIds') = 'array';
+                    INSERT INTO stage_linked_books (book_id)
+                    SELECT (doc->>'id')::int
+                    FROM stage_raw
+                    WHERE jsonb_typeof(doc->'authorIds') = 'array'
+                    """,
+            ImportTable.BOOK_AUTHOR, """
+                    INSERT INTO stage_book_author (book_id, author_id)
+                    SELECT (doc->>'bookId')::int, (doc->>'authorId')::int
+                    FROM stage_raw WHERE doc IS NOT NULL
+                    """);
+
+    /*
+     * Duplicate ids within one load resolve to the last row staged. Rows that would not change
+     * are skipped, so re-importing the same data leaves versions (and ETags) alone. Rows that
+     * lose or gain a relation are touched like the services do, since their DTOs change too.
+     * Links are diffed against the live table with EXCEPT, a set operation rather than a probe
+     * per staged link, and only the difference is written.
+     */
+    private static final Map<ImportTable, String> MERGE = Map.of(
+            ImportTable.PUBLISHERS, """
+                    INSERT INTO publishers (id, name)
+                    SELECT DISTINCT ON (s.id) s.id, s.name
+                    FROM stage_publishers s
+                    WHERE s.id IS NOT NULL AND s.name IS NOT NULL
+                    ORDER BY s.id, s.seq DESC
+                    ON CONFLICT (id) DO UPDATE
+                    SET name = EXCLUDED.name, version = publishers.version + 1, updated_at = now()
+                    WHERE publishers.name IS DISTINCT FROM EXCLUDED.name
+                    """,
+            ImportTable.AUTHORS, """
+                    INSERT INTO authors (id, name, surname, country)
+                    SELECT DISTINCT ON (s.id) s.id, s.name, s.surname, s.country
+                    FROM stage_authors s
+                    WHERE s.id IS NOT NULL AND s.name IS NOT NULL AND s.surname IS NOT NULL
+                    ORDER BY s.id, s.seq DESC
+                    ON CONFLICT (id) DO UPDATE
+                    SET name = EXCLUDED.name, surname = EXCLUDED.surname, country = EXCLUDED.country,
+                        version = authors.version + 1, updated_at = now()
+                    WHERE (authors.name, authors.surname, authors.country)
+                              IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.surname, EXCLUDED.country)
+                    """,
+            ImportTable.BOOKS, """
+                    WITH previous AS (
+                        SELECT b.id, b.publisher_id FROM books b
+                        WHERE b.id IN (SELECT id FROM stage_books)
+                    ), merged AS (
+                        INSERT INTO books (id, title, published_date, genre, publisher_id)
+                        SELECT DISTINCT ON (s.id) s.id, s.title, s.published_date, s.genre, p.id
+                        FROM stage_books s
+                        LEFT JOIN publishers p ON p.id = s.publisher_id
+                        WHERE s.id IS NOT NULL AND s.title IS NOT NULL
+                        ORDER BY s.id, s.seq DESC
+                        ON CONFLICT (id) DO UPDATE
+                        SET title = EXCLUDED.title, published_date = EXCLUDED.published_date,
+                            genre = EXCLUDED.genre, publisher_id = EXCLUDED.publisher_id,
+                            version = books.version + 1, updated_at = now()
+                        WHERE (books.title, books.published_date, books.genre, books.publisher_id)
+                                  IS DISTINCT FROM
+                              (EXCLUDED.title, EXCLUDED.published_date, EXCLUDED.genre, EXCLUDED.publisher_id)
+                        RETURNING id, publisher_id
+                    ), touched AS (
+                        UPDATE publishers SET version = version + 1, updated_at = now()
+                        WHERE id IN (SELECT publisher_id FROM merged
+                                     UNION
+                                     SELECT p.publisher_id FROM previous p JOIN merged m ON m.id = p.id
+                                     WHERE p.publisher_id IS DISTINCT FROM m.publisher_id)
+                    )
+                    SELECT count(*) FROM merged
+                    """,
+            ImportTable.BOOK_AUTHOR, """
+                    WITH unlinked AS (
+                        DELETE FROM book_author
+                        WHERE (book_id, author_id) IN (SELECT ba.book_id, ba.author_id
+                                                       FROM book_author ba
+                                                       JOIN stage_linked_books l ON l.book_id = ba.book_id
+                                                       EXCEPT
+                                                       SELECT book_id, author_id FROM stage_book_author)
+                        RETURNING book_id, author_id
+                    ), linked AS (
+                        INSERT INTO book_author (book_id, author_id)
+                        SELECT s.book_id, s.author_id
+                        FROM stage_book_author s
+                        JOIN books b ON b.id = s.book_id
+                        JOIN authors a ON a.id = s.author_id
+                        EXCEPT
+                        SELECT book_id, author_id FROM book_author
+                        ON CONFLICT DO NOTHING
+                        RETURNING book_id, author_id
+                    ), touched_books AS (
+                        UPDATE books SET version = version + 1, updated_at = now()
+                        WHERE id IN (SELECT book_id FROM linked UNION SELECT book_id FROM unlinked)
+                    ), touched_authors AS (
+                        UPDATE authors SET version = version + 1, updated_at = now()
+                        WHERE id IN (SELECT author_id FROM linked UNION SELECT author_id FROM unlinked)
+                    )
+                    SELECT (SELECT count(*) FROM linked) + (SELECT count(*) FROM unlinked)
+                    """);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void createStagingTables() {
+        doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLES);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public long stage(ImportSourceDTO source) {
+        return doWork(connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                if (source.format() == ImportFormat.CSV) {
+                    return copyManager.copyIn("COPY stage_" + source.table().tableName()
+                                    + " (" + CSV_COLUMNS.get(source.table()) + ") FROM STDIN WITH (FORMAT csv, HEADER true)",
+                            source.data(), COPY_BUFFER_SIZE);
+                }
+
+                long rows = copyManager.copyIn(COPY_NDJSON, source.data(), COPY_BUFFER_SIZE);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(PROJECT_NDJSON.get(source.table()));
+                    statement.execute("TRUNCATE stage_raw");
+                }
+                return rows;
+            } catch (IOException e) {
+                throw new CatalogImportException("Failed to read " + source.table().tableName() + " input", e);
+            }
+        });
+    }
+
+    @Override
+    public long countStaged(ImportTable table) {
+        return doWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM stage_" + table.tableName())) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        });
+    }
+
+    @Override
+    public long merge(ImportTable table) {
+        return doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // Temporary tables are never auto-analyzed; without statistics the merge joins plan badly.
+                statement.execute("ANALYZE stage_" + table.tableName());
+                if (statement.execute(MERGE.get(table))) {
+                    try (ResultSet resultSet = statement.getResultSet()) {
+                        resultSet.next();
+                        return resultSet.getLong(1);
+                    }
+                }
+                return (long) statement.getUpdateCount();
+            }
+        });
+    }
+
+    /**
+     * Moves each id sequence past the imported ids. Sequences only ever move forward, so id
+     * blocks already handed out to a running application stay valid.
+     */
+    @Override
+    public void syncSequences() {
+        doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[]{"publishers", "authors", "books"}) {
+                    statement.execute("""
+                            SELECT setval('%1$s_id_seq',
+                                          GREATEST((SELECT coalesce(max(id), 1) FROM %1$s),
+                                                   (SELECT last_value FROM %1$s_id_seq)))
+                            """.formatted(table));
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void evictSecondLevelCache() {
+        SecondLevelCache.evictAll(entityManager);
+    }
+
+    private <T> T doWork(ReturningWork<T> work) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try {
+                return work.execute(connection);
+            } catch (SQLException e) {
+                if (isInputError(e)) {
+                    throw new CatalogImportException(e.getMessage(), e);
+                }
+                throw e;
+            }
+        });
+    }
+
+    /** SQLSTATE class 22, data exceptions: what COPY and the casts raise for rows they cannot read. */
+    private static boolean isInputError(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("22");
+    }
+}
@@ -1,16 +1,31 @@
 package com.library.repository.impl;
 
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PageVersionDTO;
 import com.library.dto.PublisherBookDTO;
+import com.library.dto.PublisherBooksChangeDTO;
+import com.library.dto.PublisherDTO;
 import com.library.entity.Book;
+import com.library.entity.CacheRegions;
 import com.library.entity.Publisher;
 import com.library.repository.PublisherRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -25,13 +40,54 @@ public class PublisherRepositoryImpl implements PublisherRepository {
         return Optional.ofNullable(publisher);
     }
 
+    @Override
+    public Optional<Publisher> findFullById(int id) {
+        return entityManager.createQuery("SELECT p FROM Publisher p WHERE p.id = :id", Publisher.class)
+                .setParameter("id", id)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Publisher.FULL_GRAPH))
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<PublisherDTO> findDTOById(int id, FieldSelection fields) {
+        return AggregatedIdQueries.findPublisher(entityManager, id, fields);
+    }
+
+    @Override
+    public Optional<EntityVersionDTO> findVersionById(int id) {
+        return VersionQueries.findVersionById(entityManager, "Publisher", id);
+    }
+
+    @Override
+    public PageVersionDTO findPageVersion(int afterId, int limit) {
+        return VersionQueries.findPageVersion(entityManager, "publishers", afterId, limit);
+    }
+
     public Set<Publisher> findAll() {
         TypedQuery<Publisher> query = entityManager.createQuery(
                 "SELECT DISTINCT p FROM Publisher p LEFT JOIN FETCH p.books ORDER BY p.id",
                 Publisher.class);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        query.setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.LIST_QUERIES);
         return new LinkedHashSet<>(query.getResultList());
     }
 
+    @Override
+    public List<Publisher> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        TypedQuery<Publisher> query = entityManager.createQuery(
+                "SELECT p FROM Publisher p WHERE p.id IN :ids", Publisher.class);
+        query.setParameter("ids", ids);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<PublisherDTO> findDTOPage(int afterId, int limit, FieldSelection fields) {
+        return AggregatedIdQueries.findPublisherPage(entityManager, afterId, limit, fields);
+    }
+
     @Override
     @Transactional
     public Publisher save(Publisher publisher) {
@@ -39,6 +95,12 @@ public class PublisherRepositoryImpl implements PublisherRepository {
             throw new IllegalArgumentException("Publisher cannot be null");
         }
 
+        // Books are assigned on their owning side, which leaves this inverse collection stale.
+        if (publisher.getId() != null) {
+            SecondLevelCache.evictCollections(entityManager, SecondLevelCache.PUBLISHER_BOOKS,
+                    List.of(publisher.getId()));
+        }
+
         if (publisher.getId() == null) {
             entityManager.persist(publisher);
             return publisher;
@@ -50,10 +112,9 @@ public class PublisherRepositoryImpl implements PublisherRepository {
     @Override
     @Transactional
     public void delete(int id) {
+        // Books keep their rows; publisher_id is ON DELETE SET NULL
         Publisher publisher = entityManager.find(Publisher.class, id);
         if (publisher != null) {
-            // Обнуляем ссылку у книг перед удалением
-            publisher.getBooks().forEach(book -> book.setPublisher(null));
             entityManager.remove(publisher);
         }
     }
@@ -89,4 +150,80 @@ public class PublisherRepositoryImpl implements PublisherRepository {
                                 Collectors.toSet()
                         )));
     }
-}
\ No newline at end of file
+
+    /**
+     * Makes {@code bookIds} exactly the publisher's books with two set-based UPDATEs: its books
+     * that are not listed lose their publisher, and listed books it does not have yet move to it.
+     * Only rows that change are written, each with a new version. The statements bypass the
+     * persistence context, so pending changes are flushed first and no book may be loaded in it.
+     */
+    @Override
+    public PublisherBooksChangeDTO replaceBooks(int publisherId, Collection<Integer> bookIds) {
+        entityManager.flush();
+        PublisherBooksChangeDTO change = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Array ids = connection.createArrayOf("integer", bookIds.toArray());
+            try {
+                Set<Integer> changedBookIds = new HashSet<>();
+                Set<Integer> previousPublisherIds = new HashSet<>();
+                try (PreparedStatement detach = connection.prepareStatement("""
+                        UPDATE books SET publisher_id = NULL, version = version + 1, updated_at = now()
+                        WHERE publisher_id = ? AND NOT (id = ANY (?))
+                        RETURNING id""")) {
+                    detach.setInt(1, publisherId);
+                    detach.setArray(2, ids);
+                    try (ResultSet resultSet = detach.executeQuery()) {
+                        while (resultSet.next()) {
+                            changedBookIds.add(resultSet.getInt(1));
+                        }
+                    }
+                }
+                try (PreparedStatement attach = connection.prepareStatement("""
+                        WITH moved AS (SELECT id, publisher_id FROM books
+                                       WHERE id = ANY (?) AND publisher_id IS DISTINCT FROM ?
+                                       FOR UPDATE)
+                        UPDATE books b SET publisher_id = ?, version = b.version + 1, updated_at = now()
+                        FROM moved
+                        WHERE b.id = moved.id
+                        RETURNING b.id, moved.publisher_id""")) {
+                    attach.setArray(1, ids);
+                    attach.setInt(2, publisherId);
+                    attach.setInt(3, publisherId);
+                    try (ResultSet resultSet = attach.executeQuery()) {
+                        while (resultSet.next()) {
+                            changedBookIds.add(resultSet.getInt(1));
+                            int previousPublisherId = resultSet.getInt(2);
+                            if (!resultSet.wasNull()) {
+                                previousPublisherIds.add(previousPublisherId);
+                            }
+                        }
+                    }
+                }
+                return new PublisherBooksChangeDTO(changedBookIds, previousPublisherIds);
+            } finally {
+                ids.free();
+            }
+        });
+        if (!change.bookIds().isEmpty()) {
+            Set<Integer> publisherIds = new HashSet<>(change.previousPublisherIds());
+            publisherIds.add(publisherId);
+            SecondLevelCache.evictEntities(entityManager, Book.class, change.bookIds());
+            SecondLevelCache.evictCollections(entityManager, SecondLevelCache.PUBLISHER_BOOKS, publisherIds);
+            SecondLevelCache.evictQueryResults(entityManager);
+        }
+        return change;
+    }
+
+    @Override
+    public void forEachName(int fetchSize, ObjIntConsumer<String> consumer) {
+        try (ScrollableResults<Object[]> results = entityManager.unwrap(Session.class).createSelectionQuery(
+                        "SELECT p.id, p.name FROM Publisher p ORDER BY p.id", Object[].class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Object[] row = results.get();
+                consumer.accept((String) row[1], (Integer) row[0]);
+            }
+        }
+    }
+}
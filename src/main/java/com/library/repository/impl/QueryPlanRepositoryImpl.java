@@ -0,0 +1,142 @@
+package com.library.repository.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.SeqScanDTO;
+import com.library.repository.QueryPlanRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plans statements the way the pool runs them, as prepared statements: each one is prepared
+ * server-side and explained with NULL arguments under {@code plan_cache_mode = force_generic_plan}.
+ * The generic plan does not depend on the argument values, so no sample value can make a scan
+ * look cheaper or dearer than it is in production. Nothing is executed.
+ */
+@Repository
+public class QueryPlanRepositoryImpl implements QueryPlanRepository {
+    private static final ObjectMapper PLAN_READER = new ObjectMapper();
+    private static final String STATEMENT_NAME = "index_advisor_plan";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Planner row estimates ({@code pg_class.reltuples}) of the tables in the public schema. */
+    @Override
+    public Map<String, Long> findTableRowEstimates() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Map<String, Long> rows = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("""
+                         SELECT relname, greatest(reltuples, 0)::bigint FROM pg_class
+                         WHERE relkind IN ('r', 'p') AND relnamespace = 'public'::regnamespace
+                         """)) {
+                while (resultSet.next()) {
+                    rows.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Sequential scans in the generic plan of {@code sql}, or empty when PostgreSQL cannot plan
+     * it, e.g. when a parameter's type cannot be inferred.
+     */
+    @Override
+    public Optional<List<SeqScanDTO>> findSeqScans(String sql) {
+        Prepared prepared = Prepared.of(sql);
+        String plan = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            }
+            // A failed statement aborts the transaction; rolling back to the savepoint keeps it usable
+            Savepoint savepoint = connection.setSavepoint();
+            boolean deallocate = false;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE " + STATEMENT_NAME + " AS " + prepared.sql());
+                deallocate = true;
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + prepared.execute())) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                return null;
+            } finally {
+                // Prepared statements outlive transactions; the connection goes back to the pool
+                if (deallocate) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("DEALLOCATE " + STATEMENT_NAME);
+                    }
+                }
+                connection.releaseSavepoint(savepoint);
+            }
+        });
+        if (plan == null) {
+            return Optional.empty();
+        }
+        try {
+            List<SeqScanDTO> scans = new ArrayList<>();
+            for (JsonNode root : PLAN_READER.readTree(plan)) {
+                collectSeqScans(root.path("Plan"), scans);
+            }
+            return Optional.of(scans);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void collectSeqScans(JsonNode node, List<SeqScanDTO> scans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scans.add(new SeqScanDTO(node.path("Relation Name").asText(), node.path("Plan Rows").asDouble(),
+                    node.hasNonNull("Filter") ? node.get("Filter").asText() : null));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scans);
+        }
+    }
+
+    /** A JDBC statement with its {@code ?} placeholders numbered as {@code $n}, quoted literals left alone. */
+    private record Prepared(String sql, int parameters) {
+        static Prepared of(String sql) {
+            StringBuilder numbered = new StringBuilder(sql.length() + 16);
+            boolean quoted = false;
+            int parameters = 0;
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                if (c == '?' && !quoted) {
+                    numbered.append('$').append(++parameters);
+                } else {
+                    numbered.append(c);
+                }
+            }
+            return new Prepared(numbered.toString(), parameters);
+        }
+
+        String execute() {
+            StringBuilder execute = new StringBuilder("EXECUTE ").append(STATEMENT_NAME);
+            for (int i = 0; i < parameters; i++) {
+                execute.append(i == 0 ? "(" : ", ").append("NULL");
+            }
+            return parameters == 0 ? execute.toString() : execute.append(')').toString();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.repository.impl;
+
+import com.library.entity.Author;
+import com.library.entity.Publisher;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hibernate keeps owning-side collections in the second-level cache consistent on its own,
+ * but never touches the inverse side ({@code Author.books}, {@code Publisher.books}) when
+ * a book changes. The collections of the affected owners are evicted explicitly, once right
+ * away and once more after the transaction completes so a concurrent reader cannot re-cache
+ * the pre-commit state. The same goes for entities written by plain SQL, which Hibernate does
+ * not see at all.
+ */
+final class SecondLevelCache {
+
+    private SecondLevelCache() {}
+
+    static final String AUTHOR_BOOKS = Author.class.getName() + ".books";
+    static final String PUBLISHER_BOOKS = Publisher.class.getName() + ".books";
+
+    /** Evicts the {@code role} collections of the given owners; null ids are skipped. */
+    static void evictCollections(EntityManager entityManager, String role, Collection<Integer> ownerIds) {
+        List<Integer> owners = ownerIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (owners.isEmpty()) {
+            return;
+        }
+        Cache cache = cacheOf(entityManager);
+        runNowAndAfterCompletion(() -> owners.forEach(ownerId -> cache.evictCollectionData(role, ownerId)));
+    }
+
+    /** Evicts the cached state of the given {@code entityClass} instances. */
+    static void evictEntities(EntityManager entityManager, Class<?> entityClass, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Integer> entities = List.copyOf(ids);
+        Cache cache = cacheOf(entityManager);
+        runNowAndAfterCompletion(() -> entities.forEach(id -> cache.evictEntityData(entityClass, id)));
+    }
+
+    /**
+     * Evicts every cached query result. Query regions are only created on first use, and
+     * {@link Cache#evictRegion} fails on one that does not exist yet.
+     */
+    static void evictQueryResults(EntityManager entityManager) {
+        Cache cache = cacheOf(entityManager);
+        runNowAndAfterCompletion(cache::evictQueryRegions);
+    }
+
+    static void evictAll(EntityManager entityManager) {
+        Cache cache = cacheOf(entityManager);
+        runNowAndAfterCompletion(cache::evictAllRegions);
+    }
+
+    private static Cache cacheOf(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+    }
+
+    private static void runNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
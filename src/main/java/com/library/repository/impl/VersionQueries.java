@@ -0,0 +1,67 @@
+package com.library.repository.impl;
+
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.PageVersionDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cheap version probes used for conditional GETs: they read only the version columns, never
+ * the entity or its associations.
+ */
+final class VersionQueries {
+
+    private VersionQueries() {}
+
+    static Optional<EntityVersionDTO> findVersionById(EntityManager entityManager, String entity, int id) {
+        return entityManager.createQuery(
+                        "SELECT e.version, e.updatedAt FROM " + entity + " e WHERE e.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(row -> new EntityVersionDTO((Long) row[0], (Instant) row[1]));
+    }
+
+    /**
+     * Aggregates the versions of exactly the rows a keyset page covers, including the extra
+     * look-ahead row that decides whether a next cursor is emitted.
+     */
+    static PageVersionDTO findPageVersion(EntityManager entityManager, String table, int afterId, int limit) {
+        return findPageVersion(entityManager, "SELECT id, version, updated_at FROM %s WHERE id > ? ORDER BY id LIMIT ?"
+                .formatted(table), List.of(afterId, limit));
+    }
+
+    /** Version of a books page as {@link AggregatedIdQueries#findBookPage} selects it. */
+    static PageVersionDTO findBookPageVersion(EntityManager entityManager, BookListCriteriaDTO criteria,
+                                              LocalDate afterDate, int afterId, int limit) {
+        List<Object> parameters = new ArrayList<>();
+        return findPageVersion(entityManager, "SELECT b.id, b.version, b.updated_at FROM books b\n"
+                + AggregatedIdQueries.bookKeyset(criteria, afterDate, afterId, limit, parameters), parameters);
+    }
+
+    private static PageVersionDTO findPageVersion(EntityManager entityManager, String page, List<Object> parameters) {
+        Query query = entityManager.createNativeQuery("""
+                SELECT count(*),
+                       coalesce(sum(id), 0)::bigint,
+                       coalesce(sum(version), 0)::bigint,
+                       coalesce((extract(epoch FROM max(updated_at)) * 1000)::bigint, 0)
+                FROM (%s) page
+                """.formatted(page));
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        Object[] row = (Object[]) query.getSingleResult();
+        return new PageVersionDTO(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                Instant.ofEpochMilli(((Number) row[3]).longValue()));
+    }
+}
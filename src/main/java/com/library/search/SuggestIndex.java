@@ -0,0 +1,371 @@
+package com.library.search;
+
+import com.library.dto.SuggestionDTO;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over one label per entity id. Labels are split into lower-cased,
+ * accent-free words; a sorted map from word to a sorted {@code int[]} of ids serves as the
+ * prefix tree, so all words starting with a prefix are one contiguous range of it. Labels are
+ * kept in an int-keyed hash table, so memory follows the number of labels however sparse the
+ * ids are; imports keep their source ids. Ids below 1, which no sequence hands out, are not
+ * indexed.
+ * <p>
+ * Every query word has to prefix some word of a label. Candidates come from the query word
+ * with the fewest postings and are checked against the others; suggestions are ordered by the
+ * matching word, then by id. Changes made inside a transaction are applied once it commits.
+ */
+public class SuggestIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Rough HotSpot sizes with compressed oops, used for the memory estimate only
+    private static final long ENTRY_BYTES = 40 + 16 + 24;
+    private static final long STRING_BYTES = 24 + 16;
+    private static final long ARRAY_BYTES = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Postings> words = new TreeMap<>();
+    private Labels labels = new Labels();
+    private long labelChars;
+
+    public void put(int id, String label) {
+        afterCommit(() -> write(() -> index(id, label)));
+    }
+
+    public void remove(int id) {
+        afterCommit(() -> write(() -> unindex(id)));
+    }
+
+    /**
+     * Replaces the whole content with what {@code loader} supplies. The new index is built
+     * aside and swapped in, so queries keep being answered from the old one meanwhile.
+     */
+    public void load(Consumer<ObjIntConsumer<String>> loader) {
+        SuggestIndex fresh = new SuggestIndex();
+        loader.accept((label, id) -> fresh.index(id, label));
+        write(() -> {
+            words = fresh.words;
+            labels = fresh.labels;
+            labelChars = fresh.labelChars;
+        });
+    }
+
+    public List<SuggestionDTO> find(String prefix, int limit) {
+        String[] query = words(prefix);
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return collect(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return labels.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int wordCount() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Approximate heap held by the index: words, posting arrays and labels. */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 2 * ARRAY_BYTES + 8L * labels.ids.length + STRING_BYTES * labels.size + labelChars;
+            for (Map.Entry<String, Postings> entry : words.entrySet()) {
+                bytes += ENTRY_BYTES + STRING_BYTES + entry.getKey().length()
+                        + ARRAY_BYTES + 4L * entry.getValue().ids.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SuggestionDTO> collect(String[] query, int limit) {
+        String driver = null;
+        long fewest = Long.MAX_VALUE;
+        for (String word : query) {
+            long postings = 0;
+            for (Postings ids : range(word).values()) {
+                postings += ids.size;
+            }
+            if (postings < fewest) {
+                driver = word;
+                fewest = postings;
+            }
+        }
+
+        List<SuggestionDTO> suggestions = new ArrayList<>(limit);
+        int[] found = new int[limit];
+        for (Postings ids : range(driver).values()) {
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.ids[i];
+                if (contains(found, suggestions.size(), id)
+                        || (query.length > 1 && !matchesAll(labels.get(id), query))) {
+                    continue;
+                }
+                found[suggestions.size()] = id;
+                suggestions.add(new SuggestionDTO(id, labels.get(id)));
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private NavigableMap<String, Postings> range(String prefix) {
+        return words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void index(int id, String label) {
+        if (id < 1) {
+            return;
+        }
+        String previous = labels.get(id);
+        if (label == null || label.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(id);
+        }
+        labels.put(id, label);
+        labelChars += label.length();
+        for (String word : words(label)) {
+            words.computeIfAbsent(word, w -> new Postings()).add(id);
+        }
+    }
+
+    private void unindex(int id) {
+        String label = id < 1 ? null : labels.get(id);
+        if (label == null) {
+            return;
+        }
+        labels.remove(id);
+        labelChars -= label.length();
+        for (String word : words(label)) {
+            Postings ids = words.get(word);
+            if (ids != null && ids.remove(id) && ids.size == 0) {
+                words.remove(word);
+            }
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Whether every query word prefixes some word of the label, checked without splitting it. */
+    private static boolean matchesAll(String label, String[] query) {
+        String folded = fold(label);
+        for (String prefix : query) {
+            if (!hasWordStartingWith(folded, prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasWordStartingWith(String text, String prefix) {
+        for (int i = 0; i + prefix.length() <= text.length(); i++) {
+            if ((i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && text.regionMatches(true, i, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String[] words(String text) {
+        String folded = fold(text);
+        Set<String> words = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            if (i < folded.length() && Character.isLetterOrDigit(folded.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                words.add(folded.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /** Strips accents; plain ASCII, by far the common case, is returned as is. */
+    private static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return text;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Open addressing with linear probing; 0 marks a free slot, as only positive ids are kept. */
+    private static final class Labels {
+        private int[] ids = new int[1024];
+        private String[] labels = new String[1024];
+        private int size;
+
+        String get(int id) {
+            int mask = ids.length - 1;
+            for (int slot = slot(id, mask); ids[slot] != 0; slot = (slot + 1) & mask) {
+                if (ids[slot] == id) {
+                    return labels[slot];
+                }
+            }
+            return null;
+        }
+
+        void put(int id, String label) {
+            if ((size + 1) * 4L > ids.length * 3L) {
+                resize(ids.length * 2);
+            }
+            int mask = ids.length - 1;
+            int slot = slot(id, mask);
+            while (ids[slot] != 0 && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (ids[slot] == 0) {
+                ids[slot] = id;
+                size++;
+            }
+            labels[slot] = label;
+        }
+
+        /** Shifts later entries of the probe run back into the freed slot, so no tombstones pile up. */
+        void remove(int id) {
+            int mask = ids.length - 1;
+            int free = slot(id, mask);
+            while (ids[free] != id) {
+                if (ids[free] == 0) {
+                    return;
+                }
+                free = (free + 1) & mask;
+            }
+            for (int next = (free + 1) & mask; ids[next] != 0; next = (next + 1) & mask) {
+                if (((next - slot(ids[next], mask)) & mask) >= ((next - free) & mask)) {
+                    ids[free] = ids[next];
+                    labels[free] = labels[next];
+                    free = next;
+                }
+            }
+            ids[free] = 0;
+            labels[free] = null;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            int[] oldIds = ids;
+            String[] oldLabels = labels;
+            ids = new int[capacity];
+            labels = new String[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != 0) {
+                    int slot = slot(oldIds[i], mask);
+                    while (ids[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    ids[slot] = oldIds[i];
+                    labels[slot] = oldLabels[i];
+                }
+            }
+        }
+
+        private static int slot(int id, int mask) {
+            int hash = id * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    /** Ascending ids, appended in place when they arrive in order as during a load. */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                return;
+            }
+            int insert = at < 0 ? -at - 1 : at;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + Math.max(2, size >> 1));
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.library.search;
+
+import com.library.dto.SuggestionsDTO;
+import com.library.repository.AuthorRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.PublisherRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Suggest indexes over book titles, author names and publisher names ({@code suggest.enabled}).
+ * They are loaded from the database once the context is up, before requests are served, and
+ * then kept current by the services' write methods. Catalog imports bypass the services and
+ * reload them instead; writes committed while a reload runs can be missed until the next one.
+ */
+@Component
+public class SuggestIndexes implements SmartInitializingSingleton, MeterBinder {
+    private final boolean enabled;
+    private final int fetchSize;
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
+    private final TransactionTemplate loadTransaction;
+    private final SuggestIndex books = new SuggestIndex();
+    private final SuggestIndex authors = new SuggestIndex();
+    private final SuggestIndex publishers = new SuggestIndex();
+    private volatile Timer queryTimer;
+
+    public SuggestIndexes(Environment env, BookRepository bookRepository, AuthorRepository authorRepository,
+                          PublisherRepository publisherRepository, PlatformTransactionManager transactionManager) {
+        this.enabled = Boolean.parseBoolean(env.getProperty("suggest.enabled", "true"));
+        this.fetchSize = Integer.parseInt(env.getProperty("suggest.loadFetchSize", "5000"));
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        // A reload runs after the import commits, so it needs a transaction of its own, and reads
+        // the primary so that replica lag cannot hide the imported rows.
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void bookChanged(int id, String title) {
+        if (enabled) books.put(id, title);
+    }
+
+    public void bookRemoved(int id) {
+        if (enabled) books.remove(id);
+    }
+
+    public void authorChanged(int id, String name, String surname) {
+        if (enabled) authors.put(id, name + " " + surname);
+    }
+
+    public void authorRemoved(int id) {
+        if (enabled) authors.remove(id);
+    }
+
+    public void publisherChanged(int id, String name) {
+        if (enabled) publishers.put(id, name);
+    }
+
+    public void publisherRemoved(int id) {
+        if (enabled) publishers.remove(id);
+    }
+
+    public SuggestionsDTO suggest(String prefix, int limit) {
+        long start = System.nanoTime();
+        SuggestionsDTO suggestions = new SuggestionsDTO(books.find(prefix, limit),
+                authors.find(prefix, limit), publishers.find(prefix, limit));
+        Timer timer = queryTimer;
+        if (timer != null) {
+            timer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        return suggestions;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /** Reloads all indexes, after the surrounding transaction commits if there is one. */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        load();
+                    }
+                }
+            });
+        } else {
+            load();
+        }
+    }
+
+    private void load() {
+        loadTransaction.executeWithoutResult(status -> {
+            books.load(consumer -> bookRepository.forEachTitle(fetchSize, consumer));
+            authors.load(consumer -> authorRepository.forEachName(fetchSize, consumer));
+            publishers.load(consumer -> publisherRepository.forEachName(fetchSize, consumer));
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        indexes().forEach((name, index) -> {
+            Gauge.builder("library.suggest.entries", index, SuggestIndex::size)
+                    .description("Labels in the suggest index")
+                    .tag("index", name)
+                    .register(registry);
+            Gauge.builder("library.suggest.words", index, SuggestIndex::wordCount)
+                    .description("Distinct words in the suggest index")
+                    .tag("index", name)
+                    .register(registry);
+            Gauge.builder("library.suggest.memory", index, SuggestIndex::estimatedBytes)
+                    .description("Estimated heap held by the suggest index")
+                    .tag("index", name)
+                    .baseUnit("bytes")
+                    .register(registry);
+        });
+        queryTimer = Timer.builder("library.suggest.query")
+                .description("Time to look up suggestions in all indexes")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
+    }
+
+    private Map<String, SuggestIndex> indexes() {
+        Map<String, SuggestIndex> indexes = new LinkedHashMap<>();
+        indexes.put("books", books);
+        indexes.put("authors", authors);
+        indexes.put("publishers", publishers);
+        return indexes;
+    }
+}
@@ -1,15 +1,25 @@
 package com.library.service;
 
 import com.library.dto.AuthorDTO;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.VersionStampDTO;
 import com.library.exception.AuthorServiceException;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public interface AuthorService {
-    Set<AuthorDTO> getAllAuthors();
-    Optional<AuthorDTO> getAuthorById(int id) throws AuthorServiceException;
+    CursorPageDTO<AuthorDTO> getAuthors(String cursor, int limit, FieldSelection fields);
+    Optional<VersionStampDTO> getAuthorVersion(int id, FieldSelection fields);
+    VersionStampDTO getAuthorsVersion(String cursor, int limit, FieldSelection fields);
+    Optional<AuthorDTO> getAuthorById(int id, FieldSelection fields) throws AuthorServiceException;
+    Optional<AuthorDTO> getFullAuthorById(int id) throws AuthorServiceException;
     void addAuthor(AuthorDTO authorDTO) throws AuthorServiceException;
     void updateAuthor(int id, AuthorDTO authorDTO) throws AuthorServiceException;
     void deleteAuthor(int id) throws AuthorServiceException;
+    List<BulkItemResultDTO> addAuthors(List<AuthorDTO> authors);
+    List<BulkItemResultDTO> updateAuthors(List<AuthorDTO> authors);
+    List<BulkItemResultDTO> deleteAuthors(List<Integer> ids);
 }
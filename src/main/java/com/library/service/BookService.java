@@ -1,15 +1,31 @@
 package com.library.service;
 
 import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchResultDTO;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.VersionStampDTO;
 import com.library.exception.BookServiceException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
-    List<BookDTO> getAllBooks();
-    Optional<BookDTO> getBookById(int id) throws BookServiceException;
+    CursorPageDTO<BookDTO> getBooks(BookListCriteriaDTO criteria, String cursor, int limit, FieldSelection fields);
+    BookSearchResultDTO searchBooks(BookSearchCriteriaDTO criteria, String cursor, int limit, FieldSelection fields);
+    Optional<VersionStampDTO> getBookVersion(int id, FieldSelection fields);
+    VersionStampDTO getBooksVersion(BookListCriteriaDTO criteria, String cursor, int limit, FieldSelection fields);
+    Optional<BookDTO> getBookById(int id, FieldSelection fields) throws BookServiceException;
+    Optional<BookDTO> getFullBookById(int id) throws BookServiceException;
     void addBook(BookDTO bookDTO) throws BookServiceException;
     void updateBook(int id, BookDTO bookDTO) throws BookServiceException;
     void deleteBook(int id) throws BookServiceException;
+    List<BulkItemResultDTO> addBooks(List<BookDTO> books);
+    List<BulkItemResultDTO> updateBooks(List<BookDTO> books);
+    List<BulkItemResultDTO> deleteBooks(List<Integer> ids);
+    void exportBooks(Consumer<List<BookDTO>> chunkConsumer);
 }
@@ -0,0 +1,11 @@
+package com.library.service;
+
+import com.library.dto.ImportResultDTO;
+import com.library.dto.ImportSourceDTO;
+import com.library.exception.CatalogImportException;
+
+import java.util.List;
+
+public interface CatalogImportService {
+    ImportResultDTO importCatalog(List<ImportSourceDTO> sources) throws CatalogImportException;
+}
@@ -0,0 +1,9 @@
+package com.library.service;
+
+import com.library.dto.IndexAdvisorReportDTO;
+
+import java.util.Optional;
+
+public interface IndexAdvisorService {
+    Optional<IndexAdvisorReportDTO> advise(Long minRows);
+}
@@ -1,15 +1,25 @@
 package com.library.service;
 
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
 import com.library.dto.PublisherDTO;
+import com.library.dto.VersionStampDTO;
 import com.library.exception.PublisherServiceException;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public interface PublisherService {
-    Set<PublisherDTO> getAllPublishers();
-    Optional<PublisherDTO> getPublisherById(int id) throws PublisherServiceException;
+    CursorPageDTO<PublisherDTO> getPublishers(String cursor, int limit, FieldSelection fields);
+    Optional<VersionStampDTO> getPublisherVersion(int id, FieldSelection fields);
+    VersionStampDTO getPublishersVersion(String cursor, int limit, FieldSelection fields);
+    Optional<PublisherDTO> getPublisherById(int id, FieldSelection fields) throws PublisherServiceException;
+    Optional<PublisherDTO> getFullPublisherById(int id) throws PublisherServiceException;
     void addPublisher(PublisherDTO publisherDTO) throws PublisherServiceException;
     void updatePublisher(int id, PublisherDTO publisherDTO) throws PublisherServiceException;
     void deletePublisher(int id) throws PublisherServiceException;
+    List<BulkItemResultDTO> addPublishers(List<PublisherDTO> publishers);
+    List<BulkItemResultDTO> updatePublishers(List<PublisherDTO> publishers);
+    List<BulkItemResultDTO> deletePublishers(List<Integer> ids);
 }
@@ -0,0 +1,9 @@
+package com.library.service;
+
+import com.library.dto.SuggestionsDTO;
+
+import java.util.Optional;
+
+public interface SuggestService {
+    Optional<SuggestionsDTO> suggest(String prefix, int limit);
+}
@@ -1,19 +1,33 @@
 package com.library.service.impl;
 
+import com.library.cache.DtoCaches;
+import com.library.datasource.ReplicaRoutingDataSource;
 import com.library.dto.AuthorDTO;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.BulkItemStatus;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.VersionStampDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
 import com.library.exception.AuthorServiceException;
 import com.library.mapper.AuthorMapper;
 import com.library.repository.AuthorRepository;
 import com.library.repository.BookRepository;
+import com.library.search.SuggestIndexes;
 import com.library.service.AuthorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,35 +35,68 @@ public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
     private final AuthorMapper authorMapper;
     private final BookRepository bookRepository;
+    private final DtoCaches dtoCaches;
+    private final BulkOperations bulkOperations;
+    private final SuggestIndexes suggestIndexes;
 
     @Autowired
-    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorMapper authorMapper, BookRepository bookRepository) {
+    public AuthorServiceImpl(AuthorRepository authorRepository, AuthorMapper authorMapper, BookRepository bookRepository,
+                             DtoCaches dtoCaches, BulkOperations bulkOperations, SuggestIndexes suggestIndexes) {
         this.authorRepository = authorRepository;
         this.authorMapper = authorMapper;
         this.bookRepository = bookRepository;
+        this.dtoCaches = dtoCaches;
+        this.bulkOperations = bulkOperations;
+        this.suggestIndexes = suggestIndexes;
     }
 
     @Transactional(readOnly = true)
-    public Set<AuthorDTO> getAllAuthors() {
-        return authorRepository.findAll().stream()
-                .map(authorMapper::toDto)
-                .collect(Collectors.toSet());
+    public CursorPageDTO<AuthorDTO> getAuthors(String cursor, int limit, FieldSelection fields) {
+        int pageSize = Cursors.checkLimit(limit);
+        List<AuthorDTO> authors = authorRepository.findDTOPage(Cursors.decodeId(cursor), pageSize + 1, fields);
+        return Cursors.page(authors, pageSize, author -> Cursors.encode(author.getId()));
+    }
+
+    /**
+     * Only reads of all fields fill the DTO cache, and they read from the primary. A summary is
+     * the entity's own row, which the second-level cache can serve; any other selection is taken
+     * from a cached DTO if there is one, else read as just its columns.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<AuthorDTO> getAuthorById(int id, FieldSelection fields) {
+        if (fields.isComplete()) {
+            return dtoCaches.authors().get(id,
+                    key -> ReplicaRoutingDataSource.onPrimary(() -> authorRepository.findDTOById(key, fields)));
+        }
+        if (fields.equals(FieldSelection.AUTHOR_SUMMARY)) {
+            return authorRepository.findById(id).map(authorMapper::toSummaryDto);
+        }
+        return dtoCaches.authors().peek(id).or(() -> authorRepository.findDTOById(id, fields));
     }
 
+    /** Embeds other entities, which the DTO cache is not evicted for, so it is always read. */
     @Transactional(readOnly = true)
-    public Optional<AuthorDTO> getAuthorById(int id) {
-        return authorRepository.findById(id)
-                .map(authorMapper::toDto);
+    public Optional<AuthorDTO> getFullAuthorById(int id) {
+        return authorRepository.findFullById(id).map(authorMapper::toFullDto);
     }
 
-    @Transactional
-    public void addAuthor(AuthorDTO authorDTO) {
-        validateAuthor(authorDTO);
+    @Transactional(readOnly = true)
+    public Optional<VersionStampDTO> getAuthorVersion(int id, FieldSelection fields) {
+        return authorRepository.findVersionById(id)
+                .map(version -> VersionStamps.of("author", id, version, fields));
+    }
 
-        Author author = authorMapper.toEntity(authorDTO);
-        setBooksFromIds(author, authorDTO.getBookIds());
+    @Transactional(readOnly = true)
+    public VersionStampDTO getAuthorsVersion(String cursor, int limit, FieldSelection fields) {
+        int afterId = Cursors.decodeId(cursor);
+        int pageSize = Cursors.checkLimit(limit);
+        return VersionStamps.ofPage("authors", afterId, pageSize,
+                authorRepository.findPageVersion(afterId, pageSize + 1), fields);
+    }
 
-        authorRepository.save(author);
+    @Transactional
+    public void addAuthor(AuthorDTO authorDTO) {
+        createAuthor(authorDTO, resolveBooks(bookIdsOf(List.of(authorDTO))));
     }
 
     @Transactional
@@ -59,19 +106,101 @@ public class AuthorServiceImpl implements AuthorService {
         Author existingAuthor = authorRepository.findById(id)
                 .orElseThrow(() -> new AuthorServiceException("Author not found"));
 
-        authorMapper.updateEntity(authorDTO, existingAuthor);
-        setBooksFromIds(existingAuthor, authorDTO.getBookIds());
-
-        authorRepository.save(existingAuthor);
+        changeAuthor(existingAuthor, authorDTO, resolveBooks(bookIdsOf(List.of(authorDTO))));
     }
 
     @Transactional
     public void deleteAuthor(int id) {
-        if (!authorRepository.findById(id).isPresent()) {
-            throw new AuthorServiceException("Author not found");
+        Author author = authorRepository.findById(id)
+                .orElseThrow(() -> new AuthorServiceException("Author not found"));
+
+        removeAuthor(author);
+    }
+
+    public List<BulkItemResultDTO> addAuthors(List<AuthorDTO> authors) {
+        return bulkOperations.run(authors, BulkItemStatus.CREATED, chunk -> {
+            Map<Integer, Book> books = resolveBooks(bookIdsOf(chunk));
+            return author -> createAuthor(author, books).getId();
+        });
+    }
+
+    public List<BulkItemResultDTO> updateAuthors(List<AuthorDTO> authors) {
+        return bulkOperations.run(authors, BulkItemStatus.UPDATED, chunk -> {
+            Map<Integer, Author> existing = resolveAuthors(chunk.stream()
+                    .map(AuthorDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            Map<Integer, Book> books = resolveBooks(bookIdsOf(chunk));
+            return author -> {
+                validateAuthor(author);
+                Author existingAuthor = author.getId() == null ? null : existing.get(author.getId());
+                if (existingAuthor == null) {
+                    throw new AuthorServiceException("Author not found");
+                }
+                changeAuthor(existingAuthor, author, books);
+                return existingAuthor.getId();
+            };
+        });
+    }
+
+    public List<BulkItemResultDTO> deleteAuthors(List<Integer> ids) {
+        return bulkOperations.run(ids, BulkItemStatus.DELETED, chunk -> {
+            Map<Integer, Author> existing = resolveAuthors(chunk.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            return id -> {
+                Author author = id == null ? null : existing.remove(id);
+                if (author == null) {
+                    throw new AuthorServiceException("Author not found");
+                }
+                removeAuthor(author);
+                return id;
+            };
+        });
+    }
+
+    private Author createAuthor(AuthorDTO authorDTO, Map<Integer, Book> books) {
+        validateAuthor(authorDTO);
+        Set<Book> authorBooks = pickBooks(books, authorDTO.getBookIds());
+
+        Author author = authorMapper.toEntity(authorDTO);
+        setBooks(author, authorBooks);
+
+        authorRepository.save(author);
+
+        suggestIndexes.authorChanged(author.getId(), author.getName(), author.getSurname());
+        dtoCaches.books().evict(authorDTO.getBookIds() == null ? Set.of() : authorDTO.getBookIds());
+        return author;
+    }
+
+    private void changeAuthor(Author existingAuthor, AuthorDTO authorDTO, Map<Integer, Book> books) {
+        Set<Book> authorBooks = pickBooks(books, authorDTO.getBookIds());
+
+        Set<Integer> affectedBookIds = existingAuthor.getBooks().stream()
+                .map(Book::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        authorMapper.updateEntity(authorDTO, existingAuthor);
+        existingAuthor.touch();
+        setBooks(existingAuthor, authorBooks);
+
+        authorRepository.save(existingAuthor);
+
+        if (authorDTO.getBookIds() != null) {
+            affectedBookIds.addAll(authorDTO.getBookIds());
         }
+        suggestIndexes.authorChanged(existingAuthor.getId(), existingAuthor.getName(), existingAuthor.getSurname());
+        dtoCaches.authors().evict(existingAuthor.getId());
+        dtoCaches.books().evict(affectedBookIds);
+    }
 
-        authorRepository.delete(id);
+    private void removeAuthor(Author author) {
+        author.getBooks().forEach(Book::touch);
+        suggestIndexes.authorRemoved(author.getId());
+        dtoCaches.authors().evict(author.getId());
+        dtoCaches.books().evict(author.getBooks().stream().map(Book::getId).toList());
+
+        authorRepository.delete(author.getId());
     }
 
     private void validateAuthor(AuthorDTO authorDTO) {
@@ -80,31 +209,53 @@ public class AuthorServiceImpl implements AuthorService {
         }
     }
 
-    private void setBooksFromIds(Author author, Set<Integer> bookIds) {
+    private Map<Integer, Author> resolveAuthors(Set<Integer> authorIds) {
+        return authorRepository.findAllByIds(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+    }
+
+    private Map<Integer, Book> resolveBooks(Set<Integer> bookIds) {
+        return bookRepository.findBooksByIds(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+    }
+
+    private static Set<Integer> bookIdsOf(List<AuthorDTO> authors) {
+        return authors.stream()
+                .map(AuthorDTO::getBookIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Book> pickBooks(Map<Integer, Book> books, Set<Integer> bookIds) {
         if (bookIds == null || bookIds.isEmpty()) {
-            author.getBooks().forEach(book -> book.getAuthors().remove(author));
-            author.getBooks().clear();
-            return;
+            return new HashSet<>();
         }
 
-        Set<Book> books = bookRepository.findBooksByIds(bookIds);
-
-        if (books.size() != bookIds.size()) {
-            Set<Integer> missingIds = bookIds.stream()
-                    .filter(id -> books.stream().noneMatch(b -> b.getId().equals(id)))
-                    .collect(Collectors.toSet());
+        Set<Integer> missingIds = bookIds.stream()
+                .filter(id -> !books.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
             throw new AuthorServiceException("Books not found with IDs: " + missingIds);
         }
 
+        return bookIds.stream()
+                .map(books::get)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void setBooks(Author author, Set<Book> books) {
         author.getBooks().forEach(book -> {
             if (!books.contains(book)) {
                 book.getAuthors().remove(author);
+                book.touch();
             }
         });
 
         books.forEach(book -> {
             if (!author.getBooks().contains(book)) {
                 book.getAuthors().add(author);
+                book.touch();
             }
         });
 
@@ -1,110 +1,437 @@
 package com.library.service.impl;
 
+import com.library.cache.DtoCaches;
+import com.library.datasource.ReplicaRoutingDataSource;
 import com.library.dto.BookDTO;
+import com.library.dto.BookListCriteriaDTO;
+import com.library.dto.BookSearchCriteriaDTO;
+import com.library.dto.BookSearchHitDTO;
+import com.library.dto.BookSearchResultDTO;
+import com.library.dto.BookSort;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.BulkItemStatus;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.IdSet;
+import com.library.dto.SearchFacetsDTO;
+import com.library.dto.VersionStampDTO;
 import com.library.entity.Author;
 import com.library.entity.Book;
 import com.library.entity.Publisher;
 import com.library.exception.BookServiceException;
+import com.library.exception.InvalidPageRequestException;
 import com.library.mapper.BookMapper;
 import com.library.repository.AuthorRepository;
 import com.library.repository.BookRepository;
+import com.library.repository.PublisherRepository;
+import com.library.search.SuggestIndexes;
 import com.library.service.BookService;
+import org.hibernate.Hibernate;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final int SEARCH_FACET_LIMIT = 20;
 
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
     private final BookMapper bookMapper;
+    private final DtoCaches dtoCaches;
+    private final BulkOperations bulkOperations;
+    private final SuggestIndexes suggestIndexes;
+    private final int searchMaxMatches;
 
     public BookServiceImpl(BookRepository bookRepository,
                            AuthorRepository authorRepository,
-                           BookMapper bookMapper) {
+                           PublisherRepository publisherRepository,
+                           BookMapper bookMapper,
+                           DtoCaches dtoCaches,
+                           BulkOperations bulkOperations,
+                           SuggestIndexes suggestIndexes,
+                           Environment env) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
         this.bookMapper = bookMapper;
+        this.dtoCaches = dtoCaches;
+        this.bulkOperations = bulkOperations;
+        this.suggestIndexes = suggestIndexes;
+        this.searchMaxMatches = Integer.parseInt(env.getProperty("search.maxMatches", "10000"));
     }
 
+    /**
+     * Keyset pages in id order, or in publication date order where the cursor carries the date
+     * and id of the last book. Books without a date have no place in date order and are left out.
+     * Date pages read the date for their cursor even where it is not a selected field.
+     */
     @Transactional(readOnly = true)
-    public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(bookMapper::toDTO)
-                .toList();
+    public CursorPageDTO<BookDTO> getBooks(BookListCriteriaDTO criteria, String cursor, int limit,
+                                           FieldSelection fields) {
+        int pageSize = Cursors.checkLimit(limit);
+        if (criteria.sort() == BookSort.ID) {
+            List<BookDTO> books = bookRepository.findDTOPage(criteria, null, Cursors.decodeId(cursor), pageSize + 1,
+                    fields);
+            return Cursors.page(books, pageSize, book -> Cursors.encode(book.getId()));
+        }
+        DateKey after = DateKey.decode(cursor);
+        List<BookDTO> books = bookRepository.findDTOPage(criteria, after.date(), after.id(), pageSize + 1,
+                fields.with("publishedDate"));
+        return Cursors.page(books, pageSize, book -> Cursors.encode(book.getPublishedDate(), book.getId()));
+    }
+
+    /**
+     * Ranked full-text search; the cursor carries the rank and id of the last hit. Ranking and
+     * facet counts stop after {@code search.maxMatches} matches, and facets are only computed for
+     * the first page.
+     */
+    @Transactional(readOnly = true)
+    public BookSearchResultDTO searchBooks(BookSearchCriteriaDTO criteria, String cursor, int limit,
+                                           FieldSelection fields) {
+        int pageSize = Cursors.checkLimit(limit);
+        Float afterRank = null;
+        int afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = Cursors.decode(cursor);
+            try {
+                afterRank = Float.parseFloat(parts[0]);
+                afterId = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        CursorPageDTO<BookSearchHitDTO> hits = Cursors.page(
+                bookRepository.search(criteria, searchMaxMatches, afterRank, afterId, pageSize + 1, fields), pageSize,
+                hit -> Cursors.encode(hit.rank(), hit.book().getId()));
+        SearchFacetsDTO facets = afterRank == null
+                ? bookRepository.findSearchFacets(criteria, searchMaxMatches, SEARCH_FACET_LIMIT)
+                : null;
+        return new BookSearchResultDTO(hits.items().stream().map(BookSearchHitDTO::book).toList(),
+                hits.nextCursor(), facets);
+    }
+
+    /**
+     * Cache hits are served without a transaction or a connection; {@code SUPPORTS} only keeps
+     * an entity manager open for the reads on a miss. Only reads of all fields fill the DTO
+     * cache, and they read from the primary. A summary is the book's own row, which the
+     * second-level cache can serve; any other selection is taken from a cached DTO if there is
+     * one, else read as just its columns.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<BookDTO> getBookById(int id, FieldSelection fields) {
+        if (fields.isComplete()) {
+            return dtoCaches.books().get(id,
+                    key -> ReplicaRoutingDataSource.onPrimary(() -> bookRepository.findDTOById(key, fields)));
+        }
+        if (fields.equals(FieldSelection.BOOK_SUMMARY)) {
+            return bookRepository.findById(id).map(bookMapper::toSummaryDTO);
+        }
+        return dtoCaches.books().peek(id).or(() -> bookRepository.findDTOById(id, fields));
+    }
+
+    /** Embeds other entities, which the DTO cache is not evicted for, so it is always read. */
+    @Transactional(readOnly = true)
+    public Optional<BookDTO> getFullBookById(int id) {
+        return bookRepository.findFullById(id).map(bookMapper::toFullDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<VersionStampDTO> getBookVersion(int id, FieldSelection fields) {
+        return bookRepository.findVersionById(id)
+                .map(version -> VersionStamps.of("book", id, version, fields));
     }
 
     @Transactional(readOnly = true)
-    public Optional<BookDTO> getBookById(int id) {
-        return bookRepository.findById(id)
-                .map(bookMapper::toDTO);
+    public VersionStampDTO getBooksVersion(BookListCriteriaDTO criteria, String cursor, int limit,
+                                           FieldSelection fields) {
+        int pageSize = Cursors.checkLimit(limit);
+        DateKey after = criteria.sort() == BookSort.ID
+                ? new DateKey(null, Cursors.decodeId(cursor))
+                : DateKey.decode(cursor);
+        return VersionStamps.ofPage("books", after.id(), pageSize,
+                bookRepository.findPageVersion(criteria, after.date(), after.id(), pageSize + 1), fields);
     }
 
     @Transactional
     public void addBook(BookDTO bookDTO) {
+        createBook(bookDTO,
+                resolveAuthors(bookDTO.getAuthorIds() == null ? Set.of() : bookDTO.getAuthorIds()),
+                resolvePublishers(publisherIdsOf(List.of(bookDTO))));
+    }
+
+    @Transactional
+    public void updateBook(int id, BookDTO bookDTO) {
+        Book existingBook = bookRepository.findById(id)
+                .orElseThrow(() -> new BookServiceException("Book not found with ID: " + id));
+
+        changeBook(existingBook, bookDTO,
+                resolveAuthors(bookDTO.getAuthorIds() == null ? Set.of() : bookDTO.getAuthorIds()),
+                resolvePublishers(publisherIdsOf(List.of(bookDTO))));
+    }
+
+    @Transactional
+    public void deleteBook(int id) {
+        Book book = bookRepository.findById(id)
+                .orElseThrow(() -> new BookServiceException("Book not found with ID: " + id));
+
+        removeBook(book);
+    }
+
+    public List<BulkItemResultDTO> addBooks(List<BookDTO> books) {
+        return bulkOperations.run(books, BulkItemStatus.CREATED, chunk -> {
+            Map<Integer, Author> authors = resolveAuthors(authorIdsOf(chunk));
+            Map<Integer, Publisher> publishers = resolvePublishers(publisherIdsOf(chunk));
+            return book -> createBook(book, authors, publishers).getId();
+        });
+    }
+
+    public List<BulkItemResultDTO> updateBooks(List<BookDTO> books) {
+        return bulkOperations.run(books, BulkItemStatus.UPDATED, chunk -> {
+            Map<Integer, Book> existing = resolveBooks(chunk.stream()
+                    .map(BookDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            Map<Integer, Author> authors = resolveAuthors(authorIdsOf(chunk));
+            Map<Integer, Publisher> publishers = resolvePublishers(publisherIdsOf(chunk));
+            return book -> {
+                if (book.getId() == null) {
+                    throw new BookServiceException("Book ID is required");
+                }
+                Book existingBook = existing.get(book.getId());
+                if (existingBook == null) {
+                    throw new BookServiceException("Book not found with ID: " + book.getId());
+                }
+                changeBook(existingBook, book, authors, publishers);
+                return existingBook.getId();
+            };
+        });
+    }
+
+    public List<BulkItemResultDTO> deleteBooks(List<Integer> ids) {
+        return bulkOperations.run(ids, BulkItemStatus.DELETED, chunk -> {
+            Map<Integer, Book> existing = resolveBooks(chunk.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            return id -> {
+                Book book = id == null ? null : existing.remove(id);
+                if (book == null) {
+                    throw new BookServiceException("Book not found with ID: " + id);
+                }
+                removeBook(book);
+                return id;
+            };
+        });
+    }
+
+    /**
+     * Everything the book references must already be resolved into {@code authors} and
+     * {@code publishers}, so that a failing item is rejected before anything is changed.
+     */
+    private Book createBook(BookDTO bookDTO, Map<Integer, Author> authors, Map<Integer, Publisher> publishers) {
         if (bookDTO.getTitle() == null || bookDTO.getTitle().isEmpty()) {
             throw new IllegalArgumentException("Title is required");
         }
 
-        Book book = bookMapper.toEntity(bookDTO);
+        Set<Author> bookAuthors = pickAuthors(authors, bookDTO.getAuthorIds());
+        Publisher publisher = pickPublisher(publishers, bookDTO.getPublisherId());
 
-        Set<Author> authors = Optional.ofNullable(bookDTO.getAuthorIds())
-                .orElse(Collections.emptySet())
-                .stream()
-                .map(authorId -> authorRepository.findById(authorId)
-                        .orElseThrow(() -> new BookServiceException("Author not found with ID: " + authorId)))
-                .collect(Collectors.toSet());
+        Book book = bookMapper.toEntity(bookDTO);
 
-        book.setAuthors(authors);
-        authors.forEach(author -> author.getBooks().add(book));
+        // book_author is owned by Book.authors; an author's books are only kept in step if they
+        // are already loaded, rather than loading them all to add one
+        book.setAuthors(bookAuthors);
+        bookAuthors.forEach(author -> {
+            if (Hibernate.isInitialized(author.getBooks())) {
+                author.getBooks().add(book);
+            }
+            author.touch();
+        });
 
-        if (bookDTO.getPublisherId() != null) {
-            Publisher publisher = new Publisher();
-            publisher.setId(bookDTO.getPublisherId());
+        if (publisher != null) {
+            publisher.touch();
             book.setPublisher(publisher);
         }
 
         bookRepository.save(book);
+
+        suggestIndexes.bookChanged(book.getId(), book.getTitle());
+        dtoCaches.authors().evict(bookDTO.getAuthorIds() == null ? Set.of() : bookDTO.getAuthorIds());
+        if (bookDTO.getPublisherId() != null) {
+            dtoCaches.publishers().evict(bookDTO.getPublisherId());
+        }
+        return book;
     }
 
-    @Transactional
-    public void updateBook(int id, BookDTO bookDTO) {
-        Book existingBook = bookRepository.findById(id)
-                .orElseThrow(() -> new BookServiceException("Book not found with ID: " + id));
+    private void changeBook(Book existingBook, BookDTO bookDTO,
+                            Map<Integer, Author> authors, Map<Integer, Publisher> publishers) {
+        Set<Author> bookAuthors = pickAuthors(authors, bookDTO.getAuthorIds());
+        Publisher publisher = pickPublisher(publishers, bookDTO.getPublisherId());
+
+        Set<Author> previousAuthors = new HashSet<>(existingBook.getAuthors());
+        Publisher previousPublisher = existingBook.getPublisher();
 
         existingBook.setTitle(bookDTO.getTitle());
         existingBook.setPublishedDate(bookDTO.getPublishedDate());
         existingBook.setGenre(bookDTO.getGenre());
+        existingBook.touch();
 
-        if (bookDTO.getPublisherId() != null) {
-            Publisher publisher = new Publisher();
-            publisher.setId(bookDTO.getPublisherId());
+        if (publisher != null) {
+            if (publisher != previousPublisher) {
+                publisher.touch();
+                if (previousPublisher != null) {
+                    previousPublisher.touch();
+                }
+            }
             existingBook.setPublisher(publisher);
         }
 
-        Set<Author> authors = Optional.ofNullable(bookDTO.getAuthorIds())
-                .orElse(Collections.emptySet())
-                .stream()
-                .map(authorId -> authorRepository.findById(authorId)
-                        .orElseThrow(() -> new BookServiceException("Author not found with ID: " + authorId)))
+        existingBook.setAuthors(bookAuthors);
+
+        // Authors expose their book ids, so gaining or losing this book is a change to them too.
+        Set<Integer> affectedAuthorIds = new HashSet<>();
+        previousAuthors.stream()
+                .filter(author -> !bookAuthors.contains(author))
+                .forEach(author -> {
+                    author.touch();
+                    affectedAuthorIds.add(author.getId());
+                });
+        bookAuthors.stream()
+                .filter(author -> !previousAuthors.contains(author))
+                .forEach(author -> {
+                    author.touch();
+                    affectedAuthorIds.add(author.getId());
+                });
+
+        bookRepository.save(existingBook, previousAuthors, previousPublisher);
+
+        Set<Integer> affectedPublisherIds = new HashSet<>();
+        if (previousPublisher != null) {
+            affectedPublisherIds.add(previousPublisher.getId());
+        }
+        if (bookDTO.getPublisherId() != null) {
+            affectedPublisherIds.add(bookDTO.getPublisherId());
+        }
+        suggestIndexes.bookChanged(existingBook.getId(), existingBook.getTitle());
+        dtoCaches.books().evict(existingBook.getId());
+        dtoCaches.authors().evict(affectedAuthorIds);
+        dtoCaches.publishers().evict(affectedPublisherIds);
+    }
+
+    private void removeBook(Book book) {
+        book.getAuthors().forEach(Author::touch);
+        suggestIndexes.bookRemoved(book.getId());
+        dtoCaches.books().evict(book.getId());
+        dtoCaches.authors().evict(book.getAuthors().stream().map(Author::getId).toList());
+        if (book.getPublisher() != null) {
+            book.getPublisher().touch();
+            dtoCaches.publishers().evict(book.getPublisher().getId());
+        }
+
+        bookRepository.delete(book.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<List<BookDTO>> chunkConsumer) {
+        bookRepository.forEachChunk(EXPORT_CHUNK_SIZE, books -> {
+            Map<Integer, IdSet> authorIds = bookRepository.findAuthorIdsForBooks(
+                    books.stream().map(Book::getId).toList());
+
+            chunkConsumer.accept(books.stream()
+                    .map(book -> {
+                        BookDTO bookDTO = bookMapper.toSummaryDTO(book);
+                        bookDTO.setAuthorIds(authorIds.getOrDefault(book.getId(), IdSet.EMPTY));
+                        return bookDTO;
+                    })
+                    .toList());
+        });
+    }
+
+    private Map<Integer, Book> resolveBooks(Set<Integer> bookIds) {
+        return bookRepository.findBooksByIds(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+    }
+
+    private Map<Integer, Author> resolveAuthors(Set<Integer> authorIds) {
+        return authorRepository.findAllByIds(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+    }
+
+    private Map<Integer, Publisher> resolvePublishers(Set<Integer> publisherIds) {
+        return publisherRepository.findAllByIds(publisherIds).stream()
+                .collect(Collectors.toMap(Publisher::getId, Function.identity()));
+    }
+
+    private static Set<Integer> authorIdsOf(List<BookDTO> books) {
+        return books.stream()
+                .map(BookDTO::getAuthorIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
                 .collect(Collectors.toSet());
+    }
 
-        existingBook.setAuthors(authors);
+    private static Set<Integer> publisherIdsOf(List<BookDTO> books) {
+        return books.stream()
+                .map(BookDTO::getPublisherId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
 
-        bookRepository.save(existingBook);
+    private static Publisher pickPublisher(Map<Integer, Publisher> publishers, Integer publisherId) {
+        if (publisherId == null) {
+            return null;
+        }
+        Publisher publisher = publishers.get(publisherId);
+        if (publisher == null) {
+            throw new BookServiceException("Publisher not found with ID: " + publisherId);
+        }
+        return publisher;
     }
 
-    @Transactional
-    public void deleteBook(int id) {
-        if (bookRepository.findById(id).isEmpty()) {
-            throw new BookServiceException("Book not found with ID: " + id);
+    private static Set<Author> pickAuthors(Map<Integer, Author> authors, Set<Integer> authorIds) {
+        if (authorIds == null || authorIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Integer> missingIds = authorIds.stream()
+                .filter(id -> !authors.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            throw new BookServiceException("Authors not found with IDs: " + missingIds);
+        }
+
+        return authorIds.stream()
+                .map(authors::get)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private record DateKey(LocalDate date, int id) {
+        static DateKey decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new DateKey(null, 0);
+            }
+            String[] parts = Cursors.decode(cursor);
+            try {
+                return new DateKey(LocalDate.parse(parts[0]), Integer.parseInt(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+            }
         }
-        bookRepository.delete(id);
     }
 }
@@ -0,0 +1,90 @@
+package com.library.service.impl;
+
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.BulkItemStatus;
+import com.library.exception.InvalidBulkRequestException;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs bulk requests in chunks, one transaction per chunk. Each chunk first resolves everything
+ * its items reference in a few IN queries, then applies the items one by one; Hibernate sends
+ * the resulting statements to the database in JDBC batches when the chunk commits.
+ * <p>
+ * An item that fails validation is reported on its own and does not affect its neighbours.
+ * If the chunk itself fails to commit, every item of the chunk is reported as failed.
+ */
+@Component
+class BulkOperations {
+
+    @FunctionalInterface
+    interface ItemAction<T> {
+        int apply(T item);
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    BulkOperations(PlatformTransactionManager transactionManager, Environment env) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Integer.parseInt(env.getProperty("bulk.chunkSize", "500"));
+        this.maxItems = Integer.parseInt(env.getProperty("bulk.maxItems", "10000"));
+    }
+
+    <T> List<BulkItemResultDTO> run(List<T> items, BulkItemStatus successStatus,
+                                    Function<List<T>, ItemAction<T>> chunkSetup) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidBulkRequestException("Bulk request must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidBulkRequestException("Bulk request must not exceed " + maxItems + " items");
+        }
+
+        List<BulkItemResultDTO> results = new ArrayList<>(items.size());
+        for (int offset = 0; offset < items.size(); offset += chunkSize) {
+            List<T> chunk = items.subList(offset, Math.min(offset + chunkSize, items.size()));
+            results.addAll(runChunk(chunk, offset, successStatus, chunkSetup));
+        }
+        return results;
+    }
+
+    private <T> List<BulkItemResultDTO> runChunk(List<T> chunk, int offset, BulkItemStatus successStatus,
+                                                 Function<List<T>, ItemAction<T>> chunkSetup) {
+        List<BulkItemResultDTO> results = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ItemAction<T> action = chunkSetup.apply(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        int id = action.apply(chunk.get(i));
+                        results.add(new BulkItemResultDTO(offset + i, id, successStatus, null));
+                    } catch (RuntimeException e) {
+                        results.add(new BulkItemResultDTO(offset + i, null, BulkItemStatus.FAILED, messageOf(e)));
+                    }
+                }
+            });
+            return results;
+        } catch (RuntimeException e) {
+            String error = "Chunk rolled back: " + messageOf(e);
+            List<BulkItemResultDTO> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkItemResultDTO result = i < results.size() ? results.get(i) : null;
+                failed.add(result != null && result.status() == BulkItemStatus.FAILED
+                        ? result
+                        : new BulkItemResultDTO(offset + i, null, BulkItemStatus.FAILED, error));
+            }
+            return failed;
+        }
+    }
+
+    private static String messageOf(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,59 @@
+package com.library.service.impl;
+
+import com.library.cache.DtoCaches;
+import com.library.dto.ImportResultDTO;
+import com.library.dto.ImportSourceDTO;
+import com.library.dto.ImportTable;
+import com.library.dto.ImportTableResultDTO;
+import com.library.repository.CatalogImportRepository;
+import com.library.search.SuggestIndexes;
+import com.library.service.CatalogImportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports all sources in one transaction: either the whole load becomes visible or none of
+ * it does. Every table is staged before any is merged, so the sources may come in any order.
+ */
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+    private final CatalogImportRepository catalogImportRepository;
+    private final DtoCaches dtoCaches;
+    private final SuggestIndexes suggestIndexes;
+
+    public CatalogImportServiceImpl(CatalogImportRepository catalogImportRepository, DtoCaches dtoCaches,
+                                    SuggestIndexes suggestIndexes) {
+        this.catalogImportRepository = catalogImportRepository;
+        this.dtoCaches = dtoCaches;
+        this.suggestIndexes = suggestIndexes;
+    }
+
+    @Transactional
+    public ImportResultDTO importCatalog(List<ImportSourceDTO> sources) {
+        long start = System.nanoTime();
+
+        catalogImportRepository.createStagingTables();
+        for (ImportSourceDTO source : sources) {
+            catalogImportRepository.stage(source);
+        }
+
+        List<ImportTableResultDTO> tables = new ArrayList<>();
+        for (ImportTable table : ImportTable.values()) {
+            long staged = catalogImportRepository.countStaged(table);
+            // Merged even when nothing is staged: books with an empty authorIds array lose their links
+            long merged = catalogImportRepository.merge(table);
+            tables.add(new ImportTableResultDTO(table.tableName(), staged, merged));
+        }
+        catalogImportRepository.syncSequences();
+
+        catalogImportRepository.evictSecondLevelCache();
+        dtoCaches.evictAll();
+        suggestIndexes.reload();
+
+        return new ImportResultDTO(tables, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,72 @@
+package com.library.service.impl;
+
+import com.library.dto.CursorPageDTO;
+import com.library.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursors for the list endpoints. A cursor wraps the sort key of the last
+ * row of a page; plain numeric ids are accepted as well so that {@code ?after=<id>} works.
+ */
+public final class Cursors {
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String PREFIX = "k:";
+
+    private Cursors() {}
+
+    public static String encode(Object... parts) {
+        StringBuilder payload = new StringBuilder(PREFIX);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) payload.append('|');
+            payload.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!payload.startsWith(PREFIX)) {
+                throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+            }
+            return payload.substring(PREFIX.length()).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        String raw = cursor.chars().allMatch(Character::isDigit) ? cursor : decode(cursor)[0];
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * Builds a page from {@code limit + 1} fetched rows: the extra row only signals that
+     * another page exists and is dropped from the response.
+     */
+    public static <T> CursorPageDTO<T> page(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageDTO<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
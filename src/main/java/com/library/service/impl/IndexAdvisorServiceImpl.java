@@ -0,0 +1,63 @@
+package com.library.service.impl;
+
+import com.library.advisor.StatementCapture;
+import com.library.dto.IndexAdvisorReportDTO;
+import com.library.dto.SeqScanDTO;
+import com.library.dto.SeqScanFindingDTO;
+import com.library.repository.QueryPlanRepository;
+import com.library.service.IndexAdvisorService;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class IndexAdvisorServiceImpl implements IndexAdvisorService {
+    private final StatementCapture statementCapture;
+    private final QueryPlanRepository queryPlanRepository;
+    private final long defaultMinRows;
+
+    public IndexAdvisorServiceImpl(StatementCapture statementCapture, QueryPlanRepository queryPlanRepository,
+                                   Environment env) {
+        this.statementCapture = statementCapture;
+        this.queryPlanRepository = queryPlanRepository;
+        this.defaultMinRows = Long.parseLong(env.getProperty("indexAdvisor.minRows", "10000"));
+    }
+
+    /**
+     * Explains every SELECT issued since startup and reports the sequential scans over tables of
+     * at least {@code minRows} estimated rows, largest tables first. Empty when statement
+     * capture is disabled.
+     */
+    @Transactional(readOnly = true)
+    public Optional<IndexAdvisorReportDTO> advise(Long minRows) {
+        if (!statementCapture.isEnabled()) {
+            return Optional.empty();
+        }
+        long threshold = minRows != null ? minRows : defaultMinRows;
+        Map<String, Long> tableRows = queryPlanRepository.findTableRowEstimates();
+        List<String> statements = statementCapture.statements();
+        List<SeqScanFindingDTO> findings = new ArrayList<>();
+        int unexplained = 0;
+        for (String sql : statements) {
+            Optional<List<SeqScanDTO>> scans = queryPlanRepository.findSeqScans(sql);
+            if (scans.isEmpty()) {
+                unexplained++;
+                continue;
+            }
+            for (SeqScanDTO scan : scans.get()) {
+                long rows = tableRows.getOrDefault(scan.table(), 0L);
+                if (rows >= threshold) {
+                    findings.add(new SeqScanFindingDTO(scan.table(), rows, scan.planRows(), scan.filter(), sql));
+                }
+            }
+        }
+        findings.sort(Comparator.comparingLong(SeqScanFindingDTO::tableRows).reversed());
+        return Optional.of(new IndexAdvisorReportDTO(statements.size(), unexplained, threshold, findings));
+    }
+}
@@ -1,108 +1,243 @@
 package com.library.service.impl;
 
+import com.library.cache.DtoCaches;
+import com.library.datasource.ReplicaRoutingDataSource;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.BulkItemStatus;
+import com.library.dto.CursorPageDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PublisherBooksChangeDTO;
 import com.library.dto.PublisherDTO;
-import com.library.entity.Book;
+import com.library.dto.VersionStampDTO;
 import com.library.entity.Publisher;
 import com.library.exception.PublisherServiceException;
 import com.library.mapper.PublisherMapper;
+import com.library.repository.BookRepository;
 import com.library.repository.PublisherRepository;
+import com.library.search.SuggestIndexes;
 import com.library.service.PublisherService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PublisherServiceImpl implements PublisherService {
     private final PublisherRepository publisherRepository;
     private final PublisherMapper publisherMapper;
+    private final BookRepository bookRepository;
+    private final DtoCaches dtoCaches;
+    private final BulkOperations bulkOperations;
+    private final SuggestIndexes suggestIndexes;
 
     @Autowired
-    public PublisherServiceImpl(PublisherRepository publisherRepository, PublisherMapper publisherMapper) {
+    public PublisherServiceImpl(PublisherRepository publisherRepository, PublisherMapper publisherMapper,
+                                BookRepository bookRepository, DtoCaches dtoCaches, BulkOperations bulkOperations,
+                                SuggestIndexes suggestIndexes) {
         this.publisherRepository = publisherRepository;
         this.publisherMapper = publisherMapper;
+        this.bookRepository = bookRepository;
+        this.dtoCaches = dtoCaches;
+        this.bulkOperations = bulkOperations;
+        this.suggestIndexes = suggestIndexes;
     }
 
     @Transactional(readOnly = true)
-    public Set<PublisherDTO> getAllPublishers() {
-        return publisherRepository.findAll().stream()
-                .map(publisherMapper::toDTO)
-                .collect(Collectors.toSet());
+    public CursorPageDTO<PublisherDTO> getPublishers(String cursor, int limit, FieldSelection fields) {
+        int pageSize = Cursors.checkLimit(limit);
+        List<PublisherDTO> publishers = publisherRepository.findDTOPage(Cursors.decodeId(cursor), pageSize + 1, fields);
+        return Cursors.page(publishers, pageSize, publisher -> Cursors.encode(publisher.getId()));
+    }
+
+    /**
+     * Only reads of all fields fill the DTO cache, and they read from the primary. A summary is
+     * the entity's own row, which the second-level cache can serve; any other selection is taken
+     * from a cached DTO if there is one, else read as just its columns.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<PublisherDTO> getPublisherById(int id, FieldSelection fields) {
+        if (fields.isComplete()) {
+            return dtoCaches.publishers().get(id,
+                    key -> ReplicaRoutingDataSource.onPrimary(() -> publisherRepository.findDTOById(key, fields)));
+        }
+        if (fields.equals(FieldSelection.PUBLISHER_SUMMARY)) {
+            return publisherRepository.findById(id).map(publisherMapper::toSummaryDTO);
+        }
+        return dtoCaches.publishers().peek(id).or(() -> publisherRepository.findDTOById(id, fields));
+    }
+
+    /** Embeds other entities, which the DTO cache is not evicted for, so it is always read. */
+    @Transactional(readOnly = true)
+    public Optional<PublisherDTO> getFullPublisherById(int id) {
+        return publisherRepository.findFullById(id).map(publisherMapper::toFullDTO);
     }
 
     @Transactional(readOnly = true)
-    public Optional<PublisherDTO> getPublisherById(int id) {
-        return publisherRepository.findById(id)
-                .map(publisherMapper::toDTO);
+    public Optional<VersionStampDTO> getPublisherVersion(int id, FieldSelection fields) {
+        return publisherRepository.findVersionById(id)
+                .map(version -> VersionStamps.of("publisher", id, version, fields));
+    }
+
+    @Transactional(readOnly = true)
+    public VersionStampDTO getPublishersVersion(String cursor, int limit, FieldSelection fields) {
+        int afterId = Cursors.decodeId(cursor);
+        int pageSize = Cursors.checkLimit(limit);
+        return VersionStamps.ofPage("publishers", afterId, pageSize,
+                publisherRepository.findPageVersion(afterId, pageSize + 1), fields);
     }
 
     @Transactional
     public void addPublisher(PublisherDTO publisherDTO) {
+        createPublisher(publisherDTO, bookRepository.findMissingIds(bookIdsOf(List.of(publisherDTO))));
+    }
+
+    @Transactional
+    public void updatePublisher(int id, PublisherDTO publisherDTO) {
+        Publisher existingPublisher = publisherRepository.findById(id)
+                .orElseThrow(() -> new PublisherServiceException("Publisher not found"));
+
+        changePublisher(existingPublisher, publisherDTO,
+                bookRepository.findMissingIds(bookIdsOf(List.of(publisherDTO))));
+    }
+
+    @Transactional
+    public void deletePublisher(int id) {
+        Publisher publisher = publisherRepository.findById(id)
+                .orElseThrow(() -> new PublisherServiceException("Publisher not found"));
+
+        removePublisher(publisher);
+    }
+
+    public List<BulkItemResultDTO> addPublishers(List<PublisherDTO> publishers) {
+        return bulkOperations.run(publishers, BulkItemStatus.CREATED, chunk -> {
+            Set<Integer> missingBookIds = bookRepository.findMissingIds(bookIdsOf(chunk));
+            return publisher -> createPublisher(publisher, missingBookIds).getId();
+        });
+    }
+
+    public List<BulkItemResultDTO> updatePublishers(List<PublisherDTO> publishers) {
+        return bulkOperations.run(publishers, BulkItemStatus.UPDATED, chunk -> {
+            Map<Integer, Publisher> existing = resolvePublishers(chunk.stream()
+                    .map(PublisherDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            Set<Integer> missingBookIds = bookRepository.findMissingIds(bookIdsOf(chunk));
+            return publisher -> {
+                Publisher existingPublisher = publisher.getId() == null ? null : existing.get(publisher.getId());
+                if (existingPublisher == null) {
+                    throw new PublisherServiceException("Publisher not found");
+                }
+                changePublisher(existingPublisher, publisher, missingBookIds);
+                return existingPublisher.getId();
+            };
+        });
+    }
+
+    public List<BulkItemResultDTO> deletePublishers(List<Integer> ids) {
+        return bulkOperations.run(ids, BulkItemStatus.DELETED, chunk -> {
+            Map<Integer, Publisher> existing = resolvePublishers(chunk.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
+            return id -> {
+                Publisher publisher = id == null ? null : existing.remove(id);
+                if (publisher == null) {
+                    throw new PublisherServiceException("Publisher not found");
+                }
+                removePublisher(publisher);
+                return id;
+            };
+        });
+    }
+
+    private Publisher createPublisher(PublisherDTO publisherDTO, Set<Integer> missingBookIds) {
         if (publisherDTO.getName() == null || publisherDTO.getName().isEmpty()) {
             throw new IllegalArgumentException("Name is required");
         }
+        checkBooksExist(publisherDTO.getBookIds(), missingBookIds);
 
         Publisher publisher = publisherMapper.toEntity(publisherDTO);
+        publisherRepository.save(publisher);
+        if (publisherDTO.getBookIds() != null && !publisherDTO.getBookIds().isEmpty()) {
+            replaceBooks(publisher, publisherDTO.getBookIds());
+        }
 
-        Set<Book> books = Optional.ofNullable(publisherDTO.getBookIds())
-                .orElse(Collections.emptySet())
-                .stream()
-                .map(bookId -> {
-                    Book book = new Book();
-                    book.setId(bookId);
-                    return book;
-                })
-                .collect(Collectors.toSet());
-
-        publisher.setBooks(books);
+        suggestIndexes.publisherChanged(publisher.getId(), publisher.getName());
 
-        try {
-            publisherRepository.save(publisher);
-        } catch (Exception e) {
-            throw new PublisherServiceException("Error while adding publisher");
-        }
+        return publisher;
     }
 
-    @Transactional
-    public void updatePublisher(int id, PublisherDTO publisherDTO) {
-        Publisher existingPublisher = publisherRepository.findById(id)
-                .orElseThrow(() -> new PublisherServiceException("Publisher not found"));
+    /** Without {@code bookIds} the publisher's books are left as they are. */
+    private void changePublisher(Publisher existingPublisher, PublisherDTO publisherDTO, Set<Integer> missingBookIds) {
+        checkBooksExist(publisherDTO.getBookIds(), missingBookIds);
 
         existingPublisher.setName(publisherDTO.getName());
+        existingPublisher.touch();
+        publisherRepository.save(existingPublisher);
+        if (publisherDTO.getBookIds() != null) {
+            replaceBooks(existingPublisher, publisherDTO.getBookIds());
+        }
 
-        Set<Book> books = Optional.ofNullable(publisherDTO.getBookIds())
-                .orElse(Collections.emptySet())
-                .stream()
-                .map(bookId -> {
-                    Book book = new Book();
-                    book.setId(bookId);
-                    return book;
-                })
-                .collect(Collectors.toSet());
+        suggestIndexes.publisherChanged(existingPublisher.getId(), existingPublisher.getName());
+        dtoCaches.publishers().evict(existingPublisher.getId());
+    }
 
-        existingPublisher.setBooks(books);
+    private void removePublisher(Publisher publisher) {
+        // Its books stay, without a publisher
+        replaceBooks(publisher, Set.of());
+        suggestIndexes.publisherRemoved(publisher.getId());
+        dtoCaches.publishers().evict(publisher.getId());
 
         try {
-            publisherRepository.save(existingPublisher);
+            publisherRepository.delete(publisher.getId());
         } catch (Exception e) {
-            throw new PublisherServiceException("Error while updating publisher");
+            throw new PublisherServiceException("Error while deleting publisher");
         }
     }
 
-    @Transactional
-    public void deletePublisher(int id) {
-        if (!publisherRepository.findById(id).isPresent()) {
-            throw new PublisherServiceException("Publisher not found");
+    /**
+     * Moves books in bulk on their owning side, so neither the publisher's collection nor the
+     * books are loaded. Books the publisher no longer lists are left without a publisher, and
+     * publishers that lose a book are touched.
+     */
+    private void replaceBooks(Publisher publisher, Set<Integer> bookIds) {
+        PublisherBooksChangeDTO change = publisherRepository.replaceBooks(publisher.getId(), bookIds);
+        publisherRepository.findAllByIds(change.previousPublisherIds()).forEach(Publisher::touch);
+
+        dtoCaches.books().evict(change.bookIds());
+        dtoCaches.publishers().evict(change.previousPublisherIds());
+    }
+
+    private Map<Integer, Publisher> resolvePublishers(Set<Integer> publisherIds) {
+        return publisherRepository.findAllByIds(publisherIds).stream()
+                .collect(Collectors.toMap(Publisher::getId, Function.identity()));
+    }
+
+    private static Set<Integer> bookIdsOf(List<PublisherDTO> publishers) {
+        return publishers.stream()
+                .map(PublisherDTO::getBookIds)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private static void checkBooksExist(Set<Integer> bookIds, Set<Integer> missingBookIds) {
+        if (bookIds == null || missingBookIds.isEmpty()) {
+            return;
         }
 
-        try {
-            publisherRepository.delete(id);
-        } catch (Exception e) {
-            throw new PublisherServiceException("Error while deleting publisher");
+        Set<Integer> missingIds = bookIds.stream()
+                .filter(missingBookIds::contains)
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            throw new PublisherServiceException("Books not found with IDs: " + missingIds);
         }
     }
 }
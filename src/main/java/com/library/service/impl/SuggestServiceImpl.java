@@ -0,0 +1,32 @@
+package com.library.service.impl;
+
+import com.library.dto.SuggestionsDTO;
+import com.library.search.SuggestIndexes;
+import com.library.service.SuggestService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+public class SuggestServiceImpl implements SuggestService {
+    private final SuggestIndexes suggestIndexes;
+
+    public SuggestServiceImpl(SuggestIndexes suggestIndexes) {
+        this.suggestIndexes = suggestIndexes;
+    }
+
+    /**
+     * Answered from memory only; the read-only marker merely admits it against the read limit.
+     * Empty when the indexes are disabled.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<SuggestionsDTO> suggest(String prefix, int limit) {
+        int max = Cursors.checkLimit(limit);
+        if (!suggestIndexes.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.of(suggestIndexes.suggest(prefix, max));
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.service.impl;
+
+import com.library.dto.EntityVersionDTO;
+import com.library.dto.FieldSelection;
+import com.library.dto.PageVersionDTO;
+import com.library.dto.VersionStampDTO;
+
+final class VersionStamps {
+
+    private VersionStamps() {}
+
+    static VersionStampDTO of(String type, int id, EntityVersionDTO version, FieldSelection fields) {
+        return new VersionStampDTO(weak(type + "-" + id + "-v" + version.version() + suffix(fields)),
+                version.updatedAt());
+    }
+
+    static VersionStampDTO ofPage(String type, int afterId, int limit, PageVersionDTO page, FieldSelection fields) {
+        String etag = type + suffix(fields) + "-after" + afterId + "-limit" + limit
+                + "-" + page.rows()
+                + "-" + page.idSum()
+                + "-" + page.versionSum()
+                + "-" + page.lastModified().toEpochMilli();
+        return new VersionStampDTO(weak(etag), page.lastModified());
+    }
+
+    /**
+     * Tags follow versions, not bytes: the same tag stands for the JSON, Smile and CBOR encodings
+     * and their gzipped forms, which makes it weak. Tomcat does not compress strongly tagged
+     * responses.
+     */
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+
+    // Each selection of fields is a representation of its own; all fields need no suffix
+    private static String suffix(FieldSelection fields) {
+        return fields.isComplete() ? "" : "-" + fields.key();
+    }
+}
@@ -0,0 +1,324 @@
+package com.library.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.dto.AsyncUpdateDTO;
+import com.library.dto.AsyncUpdateStatus;
+import com.library.dto.AuthorDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.BulkItemResultDTO;
+import com.library.dto.BulkItemStatus;
+import com.library.exception.ServiceOverloadedException;
+import com.library.service.impl.AuthorServiceImpl;
+import com.library.service.impl.BookServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Write-behind queue for author and book updates whose clients do not need to read their own
+ * write ({@code Prefer: respond-async}). Updates wait per entity, so a later update of the same
+ * author or book replaces one that has not been flushed yet and takes its place at the back of
+ * the queue. Every {@code writeBehind.flushMillis} the waiting updates are applied in queue order
+ * on a single thread, up to {@code writeBehind.batchSize} at a time, each run of consecutive
+ * author or book updates through the service's bulk update. Author and book updates both set
+ * book_author links, so keeping their order makes the last update of a link the one that holds.
+ * <p>
+ * Once {@code writeBehind.capacity} entities are waiting, further updates are refused with 503
+ * and Retry-After. If the write limiter refuses a flush, the batch goes back to the queue and is
+ * retried on the next flush. At shutdown, once the server has stopped taking requests, whatever
+ * is still waiting is flushed before the context closes.
+ * <p>
+ * Outcomes can be polled by tracking id for {@code writeBehind.statusTtlSeconds}; an update that
+ * was replaced reports the outcome of the update that replaced it.
+ */
+@Component
+public class WriteBehindQueue implements SmartLifecycle, MeterBinder {
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final String AUTHOR = "author";
+    private static final String BOOK = "book";
+
+    private final AuthorServiceImpl authorServiceImpl;
+    private final BookServiceImpl bookServiceImpl;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Cache<String, AsyncUpdateDTO> outcomes;
+
+    // Guarded by itself; iteration order is flush order
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public WriteBehindQueue(AuthorServiceImpl authorServiceImpl, BookServiceImpl bookServiceImpl, Environment env) {
+        this.authorServiceImpl = authorServiceImpl;
+        this.bookServiceImpl = bookServiceImpl;
+        this.capacity = Integer.parseInt(env.getProperty("writeBehind.capacity", "10000"));
+        this.batchSize = Integer.parseInt(env.getProperty("writeBehind.batchSize",
+                env.getProperty("bulk.chunkSize", "500")));
+        this.flushMillis = Long.parseLong(env.getProperty("writeBehind.flushMillis", "200"));
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(Long.parseLong(env.getProperty("writeBehind.maxTracked", "100000")))
+                .expireAfterWrite(Duration.ofSeconds(
+                        Long.parseLong(env.getProperty("writeBehind.statusTtlSeconds", "3600"))))
+                .build();
+    }
+
+    public AsyncUpdateDTO enqueueAuthor(int id, AuthorDTO author) {
+        return enqueue(new Key(AUTHOR, id), author);
+    }
+
+    public AsyncUpdateDTO enqueueBook(int id, BookDTO book) {
+        return enqueue(new Key(BOOK, id), book);
+    }
+
+    public Optional<AsyncUpdateDTO> getStatus(String trackingId) {
+        return Optional.ofNullable(outcomes.getIfPresent(trackingId));
+    }
+
+    private AsyncUpdateDTO enqueue(Key key, Object update) {
+        AsyncUpdateDTO queued = new AsyncUpdateDTO(UUID.randomUUID().toString(), key.entity(), key.id(),
+                AsyncUpdateStatus.QUEUED, null);
+        synchronized (pending) {
+            if (!running) {
+                throw new ServiceOverloadedException("Write-behind queue is not accepting updates",
+                        retryAfterSeconds());
+            }
+            Pending waiting = pending.get(key);
+            if (waiting == null) {
+                if (pending.size() >= capacity) {
+                    rejected.incrementAndGet();
+                    throw new ServiceOverloadedException("Write-behind queue is full", retryAfterSeconds());
+                }
+                waiting = new Pending();
+            } else {
+                pending.remove(key);
+                coalesced.incrementAndGet();
+            }
+            pending.put(key, waiting);
+            waiting.update = update;
+            waiting.trackingIds.add(queued.trackingId());
+            outcomes.put(queued.trackingId(), queued);
+        }
+        return queued;
+    }
+
+    /**
+     * Applies everything waiting, batch by batch; stops early if the write limiter refuses a batch.
+     * Any other failure fails what the batch had not completed: an exception escaping the scheduled
+     * task would cancel all later flushes.
+     */
+    private void flush() {
+        while (true) {
+            Map<Key, Pending> batch = take();
+            try {
+                if (batch.isEmpty() || !apply(batch) || batch.size() < batchSize) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Write-behind flush failed", e);
+                batch.forEach((key, waiting) -> {
+                    if (!waiting.completed) {
+                        complete(key, waiting, AsyncUpdateStatus.FAILED, messageOf(e));
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private Map<Key, Pending> take() {
+        Map<Key, Pending> batch = new LinkedHashMap<>();
+        synchronized (pending) {
+            Iterator<Map.Entry<Key, Pending>> waiting = pending.entrySet().iterator();
+            while (batch.size() < batchSize && waiting.hasNext()) {
+                Map.Entry<Key, Pending> entry = waiting.next();
+                batch.put(entry.getKey(), entry.getValue());
+                waiting.remove();
+            }
+        }
+        return batch;
+    }
+
+    /** Returns false if the batch was refused and put back. */
+    private boolean apply(Map<Key, Pending> batch) {
+        List<Map<Key, Pending>> runs = new ArrayList<>();
+        String entity = null;
+        for (Map.Entry<Key, Pending> entry : batch.entrySet()) {
+            if (!entry.getKey().entity().equals(entity)) {
+                entity = entry.getKey().entity();
+                runs.add(new LinkedHashMap<>());
+            }
+            runs.get(runs.size() - 1).put(entry.getKey(), entry.getValue());
+        }
+        try {
+            for (Map<Key, Pending> run : runs) {
+                if (AUTHOR.equals(run.keySet().iterator().next().entity())) {
+                    apply(run, updates -> authorServiceImpl.updateAuthors(
+                            updates.stream().map(AuthorDTO.class::cast).toList()));
+                } else {
+                    apply(run, updates -> bookServiceImpl.updateBooks(
+                            updates.stream().map(BookDTO.class::cast).toList()));
+                }
+            }
+            return true;
+        } catch (ServiceOverloadedException e) {
+            // Runs already applied are empty, so this puts back the refused run and those after it
+            Map<Key, Pending> refused = new LinkedHashMap<>();
+            runs.forEach(refused::putAll);
+            requeue(refused);
+            return false;
+        }
+    }
+
+    /** Completes and empties {@code batch}, unless the update is refused; then it is left as it was. */
+    private void apply(Map<Key, Pending> batch, Function<List<Object>, List<BulkItemResultDTO>> bulkUpdate) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> updates = batch.values().stream().map(waiting -> waiting.update).toList();
+        List<BulkItemResultDTO> results;
+        try {
+            results = bulkUpdate.apply(updates);
+        } catch (ServiceOverloadedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            batch.forEach((key, waiting) -> complete(key, waiting, AsyncUpdateStatus.FAILED, messageOf(e)));
+            batch.clear();
+            return;
+        }
+        int index = 0;
+        for (Map.Entry<Key, Pending> entry : batch.entrySet()) {
+            BulkItemResultDTO result = results.get(index++);
+            boolean updated = result.status() == BulkItemStatus.UPDATED;
+            complete(entry.getKey(), entry.getValue(), updated ? AsyncUpdateStatus.APPLIED : AsyncUpdateStatus.FAILED,
+                    result.error());
+        }
+        batch.clear();
+    }
+
+    private void complete(Key key, Pending waiting, AsyncUpdateStatus status, String error) {
+        waiting.completed = true;
+        (status == AsyncUpdateStatus.APPLIED ? applied : failed).incrementAndGet();
+        for (String trackingId : waiting.trackingIds) {
+            outcomes.put(trackingId, new AsyncUpdateDTO(trackingId, key.entity(), key.id(), status, error));
+        }
+    }
+
+    /**
+     * Puts a refused batch back in front; an update that arrived meanwhile takes over its tracking
+     * ids and keeps its own place.
+     */
+    private void requeue(Map<Key, Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (pending) {
+            Map<Key, Pending> requeued = new LinkedHashMap<>(batch);
+            pending.forEach((key, newer) -> {
+                Pending older = requeued.remove(key);
+                if (older != null) {
+                    newer.trackingIds.addAll(0, older.trackingIds);
+                }
+                requeued.put(key, newer);
+            });
+            pending.clear();
+            pending.putAll(requeued);
+        }
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /** Refuses new updates, lets a running flush finish, then flushes what is left once more. */
+    @Override
+    public void stop() {
+        synchronized (pending) {
+            running = false;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (pending) {
+            pending.forEach((key, waiting) ->
+                    complete(key, waiting, AsyncUpdateStatus.FAILED, "Not applied before shutdown"));
+            pending.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.writebehind.pending", this, queue -> {
+                    synchronized (queue.pending) {
+                        return queue.pending.size();
+                    }
+                })
+                .description("Entities with an update waiting to be flushed")
+                .register(registry);
+        Map<String, AtomicLong> counts = Map.of("applied", applied, "failed", failed,
+                "coalesced", coalesced, "rejected", rejected);
+        counts.forEach((outcome, count) ->
+                FunctionCounter.builder("library.writebehind.updates", count, AtomicLong::get)
+                        .description("Entity updates applied or failed when flushed, coalesced into a later "
+                                + "update, or rejected because the queue was full")
+                        .tag("outcome", outcome)
+                        .register(registry));
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(flushMillis));
+    }
+
+    private static String messageOf(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private record Key(String entity, int id) {}
+
+    private static final class Pending {
+        private final List<String> trackingIds = new ArrayList<>(1);
+        private Object update;
+        private boolean completed;
+    }
+}
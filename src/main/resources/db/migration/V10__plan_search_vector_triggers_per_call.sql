@@ -0,0 +1,19 @@
+-- The author trigger joins its transition tables. As static PL/pgSQL its plan is cached per
+-- connection, sized by whichever statement fired it first: after a one-row update, a bulk update
+-- of many authors ran a nested loop over both tables. EXECUTE plans it for each statement.
+CREATE OR REPLACE FUNCTION books_search_vector_on_author() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    EXECUTE $query$
+        SELECT refresh_books_search_vector(ARRAY(
+                SELECT DISTINCT ba.book_id
+                FROM book_author ba
+                         JOIN new_authors n ON n.id = ba.author_id
+                         JOIN old_authors o ON o.id = n.id
+                WHERE (n.name, n.surname) IS DISTINCT FROM (o.name, o.surname)))
+        $query$;
+    RETURN NULL;
+END
+$$;
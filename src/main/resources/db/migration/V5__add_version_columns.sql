@@ -0,0 +1,11 @@
+ALTER TABLE publishers
+    ADD COLUMN version    BIGINT                   NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE authors
+    ADD COLUMN version    BIGINT                   NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE books
+    ADD COLUMN version    BIGINT                   NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
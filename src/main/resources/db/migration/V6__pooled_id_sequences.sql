@@ -0,0 +1,3 @@
+ALTER SEQUENCE publishers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE authors_id_seq INCREMENT BY 50;
+ALTER SEQUENCE books_id_seq INCREMENT BY 50;
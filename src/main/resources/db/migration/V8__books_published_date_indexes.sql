@@ -0,0 +1,6 @@
+-- Pages in publication date order seek on (published_date, id); id breaks ties between books
+-- published on the same day, so the keyset never skips or repeats a row.
+CREATE INDEX books_published_date_idx ON books (published_date, id);
+
+-- Genre filters combined with a publication date range
+CREATE INDEX books_genre_published_date_idx ON books (genre, published_date);
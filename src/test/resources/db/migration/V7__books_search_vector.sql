@@ -0,0 +1,99 @@
+-- Full-text search document per book: the title (weight A) and its authors' names (weight B).
+ALTER TABLE books
+    ADD COLUMN search_vector TSVECTOR NOT NULL DEFAULT ''::tsvector;
+
+-- Rebuilds the documents of the given books in one set-based pass, so that bulk changes cost a
+-- join rather than a lookup per book.
+CREATE FUNCTION refresh_books_search_vector(book_ids INTEGER[]) RETURNS VOID
+    LANGUAGE sql
+AS
+$$
+UPDATE books b
+SET search_vector = setweight(to_tsvector('english', coalesce(b.title, '')), 'A')
+                        || setweight(to_tsvector('english', coalesce(linked.names, '')), 'B')
+FROM (SELECT changed.id, string_agg(a.name || ' ' || a.surname, ' ') AS names
+      FROM unnest(book_ids) AS changed(id)
+               LEFT JOIN book_author ba ON ba.book_id = changed.id
+               LEFT JOIN authors a ON a.id = ba.author_id
+      GROUP BY changed.id) linked
+WHERE b.id = linked.id
+$$;
+
+-- Books: a new book cannot have authors yet; a retitled one keeps its author lexemes.
+CREATE FUNCTION books_search_vector_on_book() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    NEW.search_vector := setweight(to_tsvector('english', coalesce(NEW.title, '')), 'A');
+    IF TG_OP = 'UPDATE' THEN
+        NEW.search_vector := NEW.search_vector || ts_filter(OLD.search_vector, '{b}');
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER books_search_vector_insert
+    BEFORE INSERT
+    ON books
+    FOR EACH ROW
+EXECUTE FUNCTION books_search_vector_on_book();
+
+CREATE TRIGGER books_search_vector_update
+    BEFORE UPDATE OF title
+    ON books
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title)
+EXECUTE FUNCTION books_search_vector_on_book();
+
+-- Book/author links: one refresh per statement, so bulk imports touch each book once.
+CREATE FUNCTION books_search_vector_on_book_author() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM refresh_books_search_vector(ARRAY(SELECT DISTINCT book_id FROM changed_links));
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER books_search_vector_link
+    AFTER INSERT
+    ON book_author
+    REFERENCING NEW TABLE AS changed_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION books_search_vector_on_book_author();
+
+CREATE TRIGGER books_search_vector_unlink
+    AFTER DELETE
+    ON book_author
+    REFERENCING OLD TABLE AS changed_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION books_search_vector_on_book_author();
+
+-- Authors: renaming an author refreshes all of their books.
+CREATE FUNCTION books_search_vector_on_author() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM refresh_books_search_vector(ARRAY(
+            SELECT DISTINCT ba.book_id
+            FROM book_author ba
+                     JOIN new_authors n ON n.id = ba.author_id
+                     JOIN old_authors o ON o.id = n.id
+            WHERE (n.name, n.surname) IS DISTINCT FROM (o.name, o.surname)));
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER books_search_vector_author_rename
+    AFTER UPDATE
+    ON authors
+    REFERENCING OLD TABLE AS old_authors NEW TABLE AS new_authors
+    FOR EACH STATEMENT
+EXECUTE FUNCTION books_search_vector_on_author();
+
+SELECT refresh_books_search_vector(ARRAY(SELECT id FROM books));
+
+CREATE INDEX books_search_vector_idx ON books USING GIN (search_vector);
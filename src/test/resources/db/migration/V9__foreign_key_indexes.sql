@@ -0,0 +1,8 @@
+-- PostgreSQL does not index the referencing side of a foreign key. Without these, listing a
+-- publisher's or an author's books scans the whole table, and so does every cascade from
+-- deleting a publisher or an author.
+CREATE INDEX books_publisher_id_idx ON books (publisher_id);
+
+-- The primary key (book_id, author_id) serves lookups by book; this serves them by author and
+-- covers the link, so joining from an author to its books is an index-only scan.
+CREATE INDEX book_author_author_id_idx ON book_author (author_id, book_id);